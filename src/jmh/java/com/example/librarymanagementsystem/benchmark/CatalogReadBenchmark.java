@@ -0,0 +1,100 @@
+// CatalogReadBenchmark.java
+package com.example.librarymanagementsystem.benchmark;
+
+import com.example.librarymanagementsystem.LibraryManagementSystemApplication;
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import com.example.librarymanagementsystem.service.BookService;
+import com.example.librarymanagementsystem.util.BulkChunks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Reading the catalog through {@code BookService} against in-memory H2 as it grows. {@code allPages} walks every
+ * copy a page at a time, so it grows with {@code catalogSize}; {@code firstPage} and {@code isbnPage} are single
+ * keyset-paged listings and should stay flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogReadBenchmark {
+
+    // Copies registered per ISBN
+    private static final int COPIES_PER_ISBN = 10;
+
+    @Param({"1000", "10000", "100000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:catalog;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--library.instrumentation.enabled=false",
+                        "--logging.level.root=warn");
+        bookService = context.getBean(BookService.class);
+
+        Iterator<BookDTO> books = IntStream.range(0, catalogSize)
+                .mapToObj(i -> new BookDTO(null, isbn(i / COPIES_PER_ISBN), "Title " + i / COPIES_PER_ISBN,
+                        "Author " + i % 97, null))
+                .iterator();
+        BulkChunks.register(books, bookService::registerBooks);
+    }
+
+    private static String isbn(int n) {
+        return String.format("978%010d", n);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Follows the cursor through the whole catalog with the largest page a client may ask for
+    @Benchmark
+    public int allPages() {
+        int count = 0;
+        Long after = null;
+        do {
+            CursorPageDTO<BookDTO> page = bookService.getBooks(after, 1000, null, null, null);
+            count += page.getItems().size();
+            after = page.getNextCursor();
+        } while (after != null);
+        return count;
+    }
+
+    @Benchmark
+    public CursorPageDTO<BookDTO> firstPage() {
+        return bookService.getBooks(null, 50, null, null, null);
+    }
+
+    @Benchmark
+    public CursorPageDTO<BookDTO> isbnPage() {
+        return bookService.getBooks(null, 50, null, isbn(0), null);
+    }
+}
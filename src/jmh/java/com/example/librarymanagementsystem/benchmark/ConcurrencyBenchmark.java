@@ -0,0 +1,139 @@
+// ConcurrencyBenchmark.java
+package com.example.librarymanagementsystem.benchmark;
+
+import com.example.librarymanagementsystem.LibraryManagementSystemApplication;
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.service.BookService;
+import com.example.librarymanagementsystem.util.BulkChunks;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Request throughput of the platform-thread servlet stack against the {@code virtual-threads} profile, with
+ * 1k, 5k and 10k clients each keeping one {@code GET /api/books} in flight. Each invocation is one wave of
+ * {@code clients} concurrent requests; the {@code completed} counter is the throughput to compare and
+ * {@code failed} counts refused, timed out and non-200 requests.
+ * <p>
+ * The virtual mode needs the forked JVM to be Java 21+ (run Maven with {@code JAVA_HOME} pointing at one).
+ * By default the application runs against in-memory H2, which shows connection and queueing limits; export
+ * {@code SPRING_DATASOURCE_URL}, {@code SPRING_DATASOURCE_USERNAME} and {@code SPRING_DATASOURCE_PASSWORD} to
+ * benchmark against MySQL, where requests block on network I/O. Forks trace pinned virtual threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class ConcurrencyBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"1000", "5000", "10000"})
+    private int clients;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Requests {
+        public long completed;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            completed = 0;
+            failed = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21+, this fork runs " + Runtime.version());
+        }
+        context = new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles(virtual ? new String[]{"test", "virtual-threads"} : new String[]{"test"})
+                .run("--server.port=0",
+                        "--spring.datasource.url=${SPRING_DATASOURCE_URL:jdbc:h2:mem:concurrency;DB_CLOSE_ON_EXIT=FALSE}",
+                        "--spring.jpa.show-sql=false",
+                        "--library.instrumentation.enabled=false",
+                        "--logging.level.root=warn");
+        BookService bookService = context.getBean(BookService.class);
+        BulkChunks.register(IntStream.range(0, 200)
+                .mapToObj(i -> new BookDTO(null, "isbn-" + (i % 20), "Title " + (i % 20), "Author " + (i % 20), null))
+                .iterator(), bookService::registerBooks);
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        clientExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(clientExecutor)
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/books?limit=20"))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        clientExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public void wave(Requests requests) throws InterruptedException {
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error == null && response.statusCode() == 200) {
+                            completed.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                        done.countDown();
+                    });
+        }
+        done.await(2, TimeUnit.MINUTES);
+        requests.completed += completed.get();
+        requests.failed += failed.get() + done.getCount();
+    }
+}
@@ -0,0 +1,91 @@
+// LendingBenchmark.java
+package com.example.librarymanagementsystem.benchmark;
+
+import com.example.librarymanagementsystem.LibraryManagementSystemApplication;
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.BorrowerDTO;
+import com.example.librarymanagementsystem.service.BookService;
+import com.example.librarymanagementsystem.service.BorrowerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One borrow followed by the matching return through {@code BorrowerService}, against in-memory H2, for each loan
+ * history durability. {@code borrowAndReturn} names the copy; {@code borrowAnyCopyAndReturn} lets the availability
+ * index pick one of the ISBN's copies. With a single benchmark thread group commit has nobody to share a batch
+ * with, so its number is the latency of one writer round trip; add {@code -t 8} to see batches shared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LendingBenchmark {
+
+    private static final String ISBN = "9780132350884";
+    private static final int COPIES = 1000;
+
+    @Param({"sync", "group-commit", "async"})
+    private String durability;
+
+    private ConfigurableApplicationContext context;
+    private BorrowerService borrowerService;
+    private long borrowerId;
+    private final long[] bookIds = new long[COPIES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:lending;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--library.instrumentation.enabled=false",
+                        "--library.loan-history.durability=" + durability,
+                        "--logging.level.root=warn");
+        borrowerService = context.getBean(BorrowerService.class);
+        BookService bookService = context.getBean(BookService.class);
+
+        borrowerId = borrowerService.registerBorrower(new BorrowerDTO(null, "jane.doe@example.com", "Jane Doe")).getId();
+        for (int i = 0; i < COPIES; i++) {
+            bookIds[i] = bookService.registerBook(new BookDTO(null, ISBN, "Clean Code", "Robert C. Martin", null)).getId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void borrowAndReturn() {
+        long bookId = bookIds[next];
+        next = (next + 1) % COPIES;
+        borrowerService.borrowBook(borrowerId, bookId);
+        borrowerService.returnBook(borrowerId, bookId);
+    }
+
+    @Benchmark
+    public Long borrowAnyCopyAndReturn() {
+        Long bookId = borrowerService.borrowAvailableCopy(borrowerId, ISBN);
+        borrowerService.returnBook(borrowerId, bookId);
+        return bookId;
+    }
+}
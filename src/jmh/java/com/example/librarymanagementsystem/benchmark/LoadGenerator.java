@@ -0,0 +1,439 @@
+// LoadGenerator.java
+package com.example.librarymanagementsystem.benchmark;
+
+import com.example.librarymanagementsystem.LibraryManagementSystemApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Open-model load generator: requests start at a fixed arrival rate (Poisson or evenly spaced) whether or not
+ * earlier ones have completed, the way independent users arrive, and each latency is measured from the request's
+ * intended start. A slow server therefore shows up as queueing in the percentiles rather than as a lower send rate.
+ * <p>
+ * Without {@code --target} the application is started in this JVM on the {@code test} profile (in-memory H2), so a
+ * capacity run needs no external services; point {@code --target} at a separately started instance to keep the
+ * generator's own CPU and GC out of the server's numbers. Before the run it registers {@code --books} copies over
+ * {@code --isbns} ISBNs and {@code --borrowers} borrowers through the bulk endpoints, then sends a weighted mix of:
+ * <ul>
+ *     <li>{@code read}: a catalog page, one book, one ISBN's availability, a title search or a borrower's loans</li>
+ *     <li>{@code borrow} / {@code return}: a specific copy, from the copies this generator knows are on the shelf
+ *     or on loan, so a conflict reported by the server is a real error</li>
+ *     <li>{@code borrow-isbn}: any available copy of an ISBN (those ISBNs are kept apart from the by-copy pool)</li>
+ *     <li>{@code replay}: the requests of the {@code --replay} files in turn, with {@code {{base_url}}},
+ *     {@code {{book_id}}} and {@code {{borrower_id}}} filled in from the seeded data, one borrower and copy per pass</li>
+ * </ul>
+ * Prints per-endpoint throughput, p50/p99/p99.9 latency and error rate, errors by exception type, and writes each
+ * endpoint's percentile distribution to {@code --report-dir}.
+ * <p>
+ * Usage: {@code LoadGenerator [--rate=200] [--duration=PT60S] [--warmup=PT10S] [--arrivals=poisson|uniform]
+ * [--mix=read:60,borrow:15,borrow-isbn:5,return:20,replay:5] [--replay=postman_collection.json,test.requests.rest]
+ * [--target=http://localhost:8080] [--books=2000] [--isbns=200] [--borrowers=500] [--timeout=PT30S]
+ * [--max-in-flight=10000] [--report-dir=target/load-report]}
+ */
+public final class LoadGenerator {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("rate", "200");
+        DEFAULTS.put("duration", "PT60S");
+        DEFAULTS.put("warmup", "PT10S");
+        DEFAULTS.put("arrivals", "poisson");
+        DEFAULTS.put("mix", "read:60,borrow:15,borrow-isbn:5,return:20,replay:5");
+        DEFAULTS.put("replay", "postman_collection.json,test.requests.rest");
+        DEFAULTS.put("books", "2000");
+        DEFAULTS.put("isbns", "200");
+        DEFAULTS.put("borrowers", "500");
+        DEFAULTS.put("timeout", "PT30S");
+        DEFAULTS.put("max-in-flight", "10000");
+        DEFAULTS.put("report-dir", "target/load-report");
+    }
+
+    private static final int BULK_CHUNK = 1000;
+
+    private final Map<String, String> options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final String baseUrl;
+
+    // Copies this generator has put on the shelf or on loan, so borrows and returns target a consistent state
+    private final Queue<Long> shelvedCopies = new ConcurrentLinkedQueue<>();
+    private final Queue<Loan> loans = new ConcurrentLinkedQueue<>();
+    private final List<Long> bookIds = new ArrayList<>();
+    private final List<Long> borrowerIds = new ArrayList<>();
+    private final List<String> isbns = new ArrayList<>();
+    private final List<String> anyCopyIsbns = new ArrayList<>();
+    private final List<Long> replayCopies = new ArrayList<>();
+    private final List<RecordedRequest> replayRequests = new ArrayList<>();
+    private final AtomicInteger replayPosition = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private record Loan(long borrowerId, long bookId, boolean anyCopy) {
+    }
+
+    private record Call(String endpoint, HttpRequest request, Consumer<HttpResponse<String>> onSuccess,
+                        Runnable onFailure) {
+    }
+
+    private LoadGenerator(Map<String, String> options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.timeout = Duration.parse(options.get("timeout"));
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String name = equals < 0 ? arg : arg.substring(2, equals);
+            if (!arg.startsWith("--") || equals < 0 || !DEFAULTS.containsKey(name) && !"target".equals(name)) {
+                System.err.println("Unknown option " + arg + "; options are --target and " + DEFAULTS.keySet());
+                System.exit(2);
+            }
+            options.put(name, arg.substring(equals + 1));
+        }
+
+        ConfigurableApplicationContext context = null;
+        String target = options.get("target");
+        if (target == null) {
+            context = startApplication();
+            target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            LoadGenerator generator = new LoadGenerator(options, target.replaceAll("/$", ""));
+            generator.loadReplayFiles();
+            generator.seed();
+            generator.run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    // Error responses include the exception class so failures can be reported by type. DevTools would restart the
+    // application by calling this class's main method again, so its restarter is switched off.
+    private static ConfigurableApplicationContext startApplication() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--server.error.include-exception=true",
+                        "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=warn");
+    }
+
+    private void loadReplayFiles() throws IOException {
+        boolean explicit = !DEFAULTS.get("replay").equals(options.get("replay"));
+        for (String file : options.get("replay").split(",")) {
+            Path path = Path.of(file.trim());
+            if (file.isBlank() || !explicit && !Files.exists(path)) {
+                continue;
+            }
+            List<RecordedRequest> requests = RecordedRequest.load(path);
+            System.out.printf("Replaying %d requests from %s%n", requests.size(), path);
+            replayRequests.addAll(requests);
+        }
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        int books = Integer.parseInt(options.get("books"));
+        int isbnCount = Integer.parseInt(options.get("isbns"));
+        int borrowers = Integer.parseInt(options.get("borrowers"));
+        // A run prefix keeps ISBNs and emails unique when seeding the same long-running target again
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < isbnCount; i++) {
+            isbns.add("LOAD-" + run + "-" + i);
+        }
+
+        List<Map<String, Object>> bookBodies = new ArrayList<>();
+        for (int i = 0; i < books; i++) {
+            int isbn = i % isbnCount;
+            bookBodies.add(Map.of("isbn", isbns.get(isbn), "title", "Load Volume " + isbn, "author", "Author " + isbn % 50));
+        }
+        List<Long> createdBooks = bulkRegister("/api/books/bulk", bookBodies);
+        for (int i = 0; i < createdBooks.size(); i++) {
+            Long id = createdBooks.get(i);
+            if (id == null) {
+                continue;
+            }
+            bookIds.add(id);
+            // ISBNs are split three ways: borrowed copy by copy, through borrow-by-ISBN, and by the replayed requests
+            switch (i % isbnCount % 3) {
+                case 0 -> shelvedCopies.add(id);
+                case 1 -> { }
+                default -> replayCopies.add(id);
+            }
+        }
+        for (int i = 1; i < isbnCount; i += 3) {
+            anyCopyIsbns.add(isbns.get(i));
+        }
+
+        List<Map<String, Object>> borrowerBodies = new ArrayList<>();
+        for (int i = 0; i < borrowers; i++) {
+            borrowerBodies.add(Map.of("email", "load-" + run + "-" + i + "@example.com", "name", "Load Borrower " + i));
+        }
+        bulkRegister("/api/borrowers/bulk", borrowerBodies).stream()
+                .filter(id -> id != null)
+                .forEach(borrowerIds::add);
+        if (bookIds.isEmpty() || borrowerIds.isEmpty()) {
+            throw new IllegalStateException("Seeding registered " + bookIds.size() + " books and "
+                    + borrowerIds.size() + " borrowers; both are needed");
+        }
+        System.out.printf("Seeded %d copies of %d ISBNs and %d borrowers at %s%n",
+                bookIds.size(), isbnCount, borrowerIds.size(), baseUrl);
+    }
+
+    // Ids in request order, null for rejected entries
+    private List<Long> bulkRegister(String path, List<Map<String, Object>> bodies) throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        for (int from = 0; from < bodies.size(); from += BULK_CHUNK) {
+            List<Map<String, Object>> chunk = bodies.subList(from, Math.min(bodies.size(), from + BULK_CHUNK));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofMinutes(5))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(chunk)))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("POST " + path + " returned " + response.statusCode() + ": " + response.body());
+            }
+            for (JsonNode result : objectMapper.readTree(response.body())) {
+                ids.add("CREATED".equals(result.path("status").asText()) ? result.path("id").asLong() : null);
+            }
+        }
+        return ids;
+    }
+
+    private void run() throws IOException, InterruptedException {
+        double rate = Double.parseDouble(options.get("rate"));
+        boolean poisson = "poisson".equals(options.get("arrivals"));
+        long warmup = Duration.parse(options.get("warmup")).toNanos();
+        long duration = Duration.parse(options.get("duration")).toNanos();
+        int maxInFlight = Integer.parseInt(options.get("max-in-flight"));
+        Map<String, Integer> mix = parseMix(options.get("mix"));
+        if (replayRequests.isEmpty() || replayCopies.isEmpty()) {
+            mix.remove("replay");
+        }
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+        LoadReport warmupReport = new LoadReport();
+        LoadReport report = new LoadReport();
+        double meanInterval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup;
+        long end = measureFrom + duration;
+        System.out.printf("Sending %.0f req/s (%s arrivals) for %s after a %s warmup, mix %s%n", rate,
+                options.get("arrivals"), options.get("duration"), options.get("warmup"), mix);
+
+        double intended = start;
+        while (intended < end) {
+            long startAt = (long) intended;
+            for (long wait = startAt - System.nanoTime(); wait > 0; wait = startAt - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            Call call = nextCall(mix, totalWeight);
+            LoadReport target = startAt >= measureFrom ? report : warmupReport;
+            if (inFlight.get() >= maxInFlight) {
+                target.recordRejected(call.endpoint(), "Not sent (max-in-flight reached)");
+                call.onFailure().run();
+            } else {
+                send(call, startAt, target);
+            }
+            intended += poisson ? -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanInterval : meanInterval;
+        }
+
+        long drainUntil = System.nanoTime() + timeout.toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+        System.out.println();
+        report.print(System.out, duration / 1e9, rate);
+        Path reportDir = Path.of(options.get("report-dir"));
+        report.writeDistributions(reportDir);
+        System.out.printf("%nPercentile distributions written to %s%n", reportDir.toAbsolutePath());
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (!List.of("read", "borrow", "borrow-isbn", "return", "replay").contains(parts[0])) {
+                throw new IllegalArgumentException("Unknown operation in --mix: " + parts[0]);
+            }
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) {
+                weights.put(parts[0], weight);
+            }
+        }
+        return weights;
+    }
+
+    private void send(Call call, long intendedStart, LoadReport report) {
+        inFlight.incrementAndGet();
+        httpClient.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - intendedStart;
+                    try {
+                        if (error != null) {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause() : error;
+                            report.recordError(call.endpoint(), latency, cause.getClass().getSimpleName());
+                            call.onFailure().run();
+                        } else if (response.statusCode() >= 400) {
+                            report.recordError(call.endpoint(), latency, errorType(response));
+                            call.onFailure().run();
+                        } else {
+                            report.recordSuccess(call.endpoint(), latency);
+                            call.onSuccess().accept(response);
+                        }
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+    }
+
+    // Spring Boot's error body names the exception when server.error.include-exception is on
+    private String errorType(HttpResponse<String> response) {
+        try {
+            String exception = objectMapper.readTree(response.body()).path("exception").asText("");
+            if (!exception.isEmpty()) {
+                return exception.substring(exception.lastIndexOf('.') + 1);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not a JSON error body; fall back to the status
+        }
+        return "HTTP " + response.statusCode();
+    }
+
+    private Call nextCall(Map<String, Integer> mix, int totalWeight) {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        String operation = null;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                operation = entry.getKey();
+                break;
+            }
+        }
+        Call call = switch (operation) {
+            case "borrow" -> borrow();
+            case "borrow-isbn" -> borrowAnyCopy();
+            case "return" -> returnCopy();
+            case "replay" -> replay();
+            default -> null;
+        };
+        // Nothing on the shelf to borrow or on loan to return: the arrival becomes a read
+        return call != null ? call : read();
+    }
+
+    private Call read() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (random.nextInt(5)) {
+            case 0 -> get("GET /api/books", "/api/books?limit=20&after=" + randomOf(bookIds));
+            case 1 -> get("GET /api/books/{id}", "/api/books/" + randomOf(bookIds));
+            case 2 -> get("GET /api/books/availability/{isbn}", "/api/books/availability/" + randomOf(isbns));
+            case 3 -> get("GET /api/books/search", "/api/books/search?q=volume+" + random.nextInt(isbns.size()));
+            default -> get("GET /api/borrowers/{id}/books", "/api/borrowers/" + randomOf(borrowerIds) + "/books");
+        };
+    }
+
+    private Call get(String endpoint, String path) {
+        return new Call(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout).GET().build(),
+                response -> { }, () -> { });
+    }
+
+    private Call borrow() {
+        Long bookId = shelvedCopies.poll();
+        if (bookId == null) {
+            return null;
+        }
+        long borrowerId = randomOf(borrowerIds);
+        return new Call("POST /api/borrowers/{id}/borrow/{bookId}",
+                post("/api/borrowers/" + borrowerId + "/borrow/" + bookId),
+                response -> loans.add(new Loan(borrowerId, bookId, false)),
+                () -> shelvedCopies.add(bookId));
+    }
+
+    private Call borrowAnyCopy() {
+        if (anyCopyIsbns.isEmpty()) {
+            return null;
+        }
+        long borrowerId = randomOf(borrowerIds);
+        return new Call("POST /api/borrowers/{id}/borrow/isbn/{isbn}",
+                post("/api/borrowers/" + borrowerId + "/borrow/isbn/" + randomOf(anyCopyIsbns)),
+                response -> loans.add(new Loan(borrowerId, Long.parseLong(response.body().trim()), true)),
+                () -> { });
+    }
+
+    private Call returnCopy() {
+        Loan loan = loans.poll();
+        if (loan == null) {
+            return null;
+        }
+        return new Call("POST /api/borrowers/{id}/return/{bookId}",
+                post("/api/borrowers/" + loan.borrowerId() + "/return/" + loan.bookId()),
+                response -> {
+                    if (!loan.anyCopy()) {
+                        shelvedCopies.add(loan.bookId());
+                    }
+                },
+                () -> loans.add(loan));
+    }
+
+    // Each pass through the files acts as one user: the same borrower and copy from register to borrow to return
+    private Call replay() {
+        int position = replayPosition.getAndIncrement() & Integer.MAX_VALUE;
+        int pass = position / replayRequests.size();
+        RecordedRequest recorded = replayRequests.get(position % replayRequests.size());
+        Map<String, String> variables = new HashMap<>();
+        variables.put("base_url", baseUrl);
+        variables.put("book_id", String.valueOf(replayCopies.get(pass % replayCopies.size())));
+        variables.put("borrower_id", String.valueOf(borrowerIds.get(pass % borrowerIds.size())));
+        return new Call("replay " + recorded.endpoint(), recorded.toHttpRequest(variables::get, timeout),
+                response -> { }, () -> { });
+    }
+
+    private HttpRequest post(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private static <T> T randomOf(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+}
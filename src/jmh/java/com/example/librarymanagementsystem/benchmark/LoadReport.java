@@ -0,0 +1,110 @@
+// LoadReport.java
+package com.example.librarymanagementsystem.benchmark;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counts per endpoint for one {@link LoadGenerator} run. Latencies are recorded in
+ * microseconds from each request's intended start, so time spent behind schedule counts against the endpoint
+ * instead of being silently skipped (coordinated omission).
+ */
+final class LoadReport {
+
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toMicros(10);
+
+    private final ConcurrentMap<String, Histogram> latencies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> requests = new ConcurrentHashMap<>();
+    // Keyed by endpoint, then by exception type ("HttpTimeoutException", "BookAlreadyBorrowedException", "HTTP 404")
+    private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> errors = new ConcurrentHashMap<>();
+
+    void recordSuccess(String endpoint, long latencyNanos) {
+        record(endpoint, latencyNanos);
+    }
+
+    void recordError(String endpoint, long latencyNanos, String errorType) {
+        record(endpoint, latencyNanos);
+        errors.computeIfAbsent(endpoint, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(errorType, key -> new LongAdder())
+                .increment();
+    }
+
+    // Requests that were never sent still count as failed, but have no latency to record
+    void recordRejected(String endpoint, String reason) {
+        requests.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+        errors.computeIfAbsent(endpoint, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(reason, key -> new LongAdder())
+                .increment();
+    }
+
+    private void record(String endpoint, long latencyNanos) {
+        requests.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+        long micros = Math.max(1, Math.min(HIGHEST_LATENCY, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        latencies.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(HIGHEST_LATENCY, 3)).recordValue(micros);
+    }
+
+    void print(PrintStream out, double seconds, double targetRate) {
+        Histogram all = new Histogram(HIGHEST_LATENCY, 3);
+        long total = 0;
+        long failed = 0;
+        out.printf("%-55s %9s %9s %9s %9s %9s %9s %8s%n",
+                "Endpoint", "Requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "Errors");
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(requests).entrySet()) {
+            String endpoint = entry.getKey();
+            long count = entry.getValue().sum();
+            long endpointErrors = errorCount(endpoint);
+            Histogram histogram = latencies.getOrDefault(endpoint, new Histogram(HIGHEST_LATENCY, 3));
+            all.add(histogram);
+            total += count;
+            failed += endpointErrors;
+            printRow(out, endpoint, count, endpointErrors, histogram, seconds);
+        }
+        printRow(out, "All endpoints", total, failed, all, seconds);
+        out.printf("%nTarget rate %.0f req/s, achieved %.1f req/s over %.0f s%n", targetRate, total / seconds, seconds);
+
+        if (!errors.isEmpty()) {
+            out.printf("%nErrors by type%n%-55s %-45s %9s %8s%n", "Endpoint", "Type", "Count", "Rate");
+            new TreeMap<>(errors).forEach((endpoint, types) -> new TreeMap<>(types).forEach((type, count) ->
+                    out.printf("%-55s %-45s %9d %7.2f%%%n", endpoint, type, count.sum(),
+                            100.0 * count.sum() / requests.get(endpoint).sum())));
+        }
+    }
+
+    private static void printRow(PrintStream out, String endpoint, long count, long failed, Histogram histogram,
+                                 double seconds) {
+        out.printf("%-55s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7.2f%%%n", endpoint, count, count / seconds,
+                millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0, count == 0 ? 0 : 100.0 * failed / count);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private long errorCount(String endpoint) {
+        Map<String, LongAdder> types = errors.get(endpoint);
+        return types == null ? 0 : types.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    // One HdrHistogram percentile distribution per endpoint (in milliseconds), for plotting or diffing between runs
+    void writeDistributions(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Histogram> entry : latencies.entrySet()) {
+            String fileName = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("_$", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(fileName)))) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+// MappingBenchmark.java
+package com.example.librarymanagementsystem.benchmark;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.BorrowerDTO;
+import com.example.librarymanagementsystem.entity.Book;
+import com.example.librarymanagementsystem.entity.Borrower;
+import com.example.librarymanagementsystem.mapper.BookMapper;
+import com.example.librarymanagementsystem.mapper.BorrowerMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the hand-written mappers against the ModelMapper configuration the services used to
+ * share. Run with {@code -prof gc} (the profile default) to compare bytes allocated per mapped object.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private BookMapper bookMapper;
+    private BorrowerMapper borrowerMapper;
+
+    private Book book;
+    private BookDTO bookDTO;
+    private Borrower borrower;
+    private BorrowerDTO borrowerDTO;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        bookMapper = new BookMapper();
+        borrowerMapper = new BorrowerMapper();
+
+        borrower = new Borrower(7L, "jane.doe@example.com", "Jane Doe");
+        book = new Book(42L, "9780132350884", "Clean Code", "Robert C. Martin", borrower);
+        bookDTO = new BookDTO(null, "9780132350884", "Clean Code", "Robert C. Martin", 7L);
+        borrowerDTO = new BorrowerDTO(null, "jane.doe@example.com", "Jane Doe");
+    }
+
+    @Benchmark
+    public BookDTO bookToDtoModelMapper() {
+        return modelMapper.map(book, BookDTO.class);
+    }
+
+    @Benchmark
+    public BookDTO bookToDtoBookMapper() {
+        return bookMapper.toDto(book);
+    }
+
+    @Benchmark
+    public Book bookToEntityModelMapper() {
+        return modelMapper.map(bookDTO, Book.class);
+    }
+
+    @Benchmark
+    public Book bookToEntityBookMapper() {
+        return bookMapper.toEntity(bookDTO);
+    }
+
+    @Benchmark
+    public BorrowerDTO borrowerToDtoModelMapper() {
+        return modelMapper.map(borrower, BorrowerDTO.class);
+    }
+
+    @Benchmark
+    public BorrowerDTO borrowerToDtoBorrowerMapper() {
+        return borrowerMapper.toDto(borrower);
+    }
+
+    @Benchmark
+    public Borrower borrowerToEntityModelMapper() {
+        return modelMapper.map(borrowerDTO, Borrower.class);
+    }
+
+    @Benchmark
+    public Borrower borrowerToEntityBorrowerMapper() {
+        return borrowerMapper.toEntity(borrowerDTO);
+    }
+}
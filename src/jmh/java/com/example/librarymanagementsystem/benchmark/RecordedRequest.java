@@ -0,0 +1,207 @@
+// RecordedRequest.java
+package com.example.librarymanagementsystem.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One request read from a Postman collection ({@code .json}), a REST Client file ({@code .rest}/{@code .http}) or a
+ * JSON-lines request log ({@code .jsonl}, one {@code {"method", "path", "headers", "body"}} object per line), kept
+ * as a template so {@code {{variables}}} are filled in each time it is replayed.
+ * <p>
+ * Variables are resolved from the caller first (base URL and seeded ids), then from the file's own definitions,
+ * then from the Postman dynamic variables {@code $guid}, {@code $timestamp} and {@code $randomInt}.
+ */
+record RecordedRequest(String endpoint, String method, String url, Map<String, String> headers, String body,
+                       Map<String, String> fileVariables) {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{\\s*([^}\\s]+)\\s*}}");
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final Pattern REQUEST_LINE = Pattern.compile("^(GET|POST|PUT|PATCH|DELETE|HEAD|OPTIONS)\\s+(\\S+).*$");
+    private static final Pattern FILE_VARIABLE = Pattern.compile("^@(\\w+)\\s*=\\s*(.*)$");
+    // Content headers are set from the body; the client refuses to send these itself
+    private static final List<String> RESTRICTED_HEADERS = List.of("content-length", "host", "connection");
+
+    HttpRequest toHttpRequest(Function<String, String> variables, Duration timeout) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(resolve(url, variables))).timeout(timeout);
+        headers.forEach((name, value) -> {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                builder.header(name, resolve(value, variables));
+            }
+        });
+        HttpRequest.BodyPublisher publisher = body == null || body.isBlank()
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(resolve(body, variables));
+        return builder.method(method, publisher).build();
+    }
+
+    private String resolve(String template, Function<String, String> variables) {
+        Matcher matcher = VARIABLE.matcher(template);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            String value = variables.apply(name);
+            if (value == null) {
+                value = fileVariables.get(name);
+            }
+            if (value == null) {
+                value = dynamicVariable(name);
+            }
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(value != null ? value : matcher.group()));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    private static String dynamicVariable(String name) {
+        return switch (name) {
+            case "$guid", "$randomUUID" -> UUID.randomUUID().toString();
+            case "$timestamp" -> String.valueOf(System.currentTimeMillis() / 1000);
+            case "$randomInt" -> String.valueOf(ThreadLocalRandom.current().nextInt(1000));
+            default -> null;
+        };
+    }
+
+    static List<RecordedRequest> load(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        if (name.endsWith(".jsonl")) {
+            return fromRequestLog(file);
+        }
+        if (name.endsWith(".rest") || name.endsWith(".http")) {
+            return fromRestClientFile(file);
+        }
+        return fromPostmanCollection(file);
+    }
+
+    // "POST {{base_url}}/api/borrowers/{{borrower_id}}/borrow/1?x=y" -> "POST /api/borrowers/{borrower_id}/borrow/{id}"
+    static String endpointOf(String method, String url) {
+        String path = url.replace("{{base_url}}", "").replaceFirst("^[a-z]+://[^/]+", "");
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        path = VARIABLE.matcher(path).replaceAll("{$1}");
+        return method + " " + NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    private static List<RecordedRequest> fromPostmanCollection(Path file) throws IOException {
+        JsonNode collection = new ObjectMapper().readTree(file.toFile());
+        Map<String, String> fileVariables = new HashMap<>();
+        collection.path("variable").forEach(variable ->
+                fileVariables.put(variable.path("key").asText(), variable.path("value").asText()));
+        List<RecordedRequest> requests = new ArrayList<>();
+        addPostmanItems(collection.path("item"), fileVariables, requests);
+        return requests;
+    }
+
+    // Folders nest their requests under their own "item" array
+    private static void addPostmanItems(JsonNode items, Map<String, String> fileVariables, List<RecordedRequest> requests) {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                addPostmanItems(item.path("item"), fileVariables, requests);
+                continue;
+            }
+            JsonNode request = item.path("request");
+            String method = request.path("method").asText("GET");
+            JsonNode url = request.path("url");
+            String rawUrl = url.isTextual() ? url.asText() : url.path("raw").asText();
+            Map<String, String> headers = new LinkedHashMap<>();
+            request.path("header").forEach(header -> {
+                if (!header.path("disabled").asBoolean(false)) {
+                    headers.put(header.path("key").asText(), header.path("value").asText());
+                }
+            });
+            String body = request.path("body").path("raw").asText(null);
+            requests.add(new RecordedRequest(endpointOf(method, rawUrl), method, rawUrl, headers, body, fileVariables));
+        }
+    }
+
+    private static List<RecordedRequest> fromRestClientFile(Path file) throws IOException {
+        Map<String, String> fileVariables = new HashMap<>();
+        List<RecordedRequest> requests = new ArrayList<>();
+        List<String> block = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            Matcher variable = FILE_VARIABLE.matcher(line.trim());
+            if (variable.matches()) {
+                fileVariables.put(variable.group(1), variable.group(2).trim());
+            } else if (line.startsWith("###")) {
+                addRestClientRequest(block, fileVariables, requests);
+                block.clear();
+            } else {
+                block.add(line);
+            }
+        }
+        addRestClientRequest(block, fileVariables, requests);
+        return requests;
+    }
+
+    // A block is comments, the request line, headers up to the first blank line, then the body
+    private static void addRestClientRequest(List<String> block, Map<String, String> fileVariables,
+                                             List<RecordedRequest> requests) {
+        int line = 0;
+        while (line < block.size() && !REQUEST_LINE.matcher(block.get(line).trim()).matches()) {
+            line++;
+        }
+        if (line == block.size()) {
+            return;
+        }
+        Matcher requestLine = REQUEST_LINE.matcher(block.get(line++).trim());
+        requestLine.matches();
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (; line < block.size() && !block.get(line).isBlank(); line++) {
+            String header = block.get(line);
+            int colon = header.indexOf(':');
+            if (colon > 0) {
+                headers.put(header.substring(0, colon).trim(), header.substring(colon + 1).trim());
+            }
+        }
+        String body = String.join("\n", block.subList(Math.min(line, block.size()), block.size())).trim();
+        String method = requestLine.group(1);
+        String url = requestLine.group(2);
+        requests.add(new RecordedRequest(endpointOf(method, url), method, url, headers, body, fileVariables));
+    }
+
+    // Lines without a method and path are not requests (such as other JSON-lines files) and are skipped
+    private static List<RecordedRequest> fromRequestLog(Path file) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<RecordedRequest> requests = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode entry = objectMapper.readTree(line);
+            if (!entry.hasNonNull("method") || !entry.hasNonNull("path")) {
+                continue;
+            }
+            String method = entry.path("method").asText().toUpperCase();
+            String url = "{{base_url}}" + entry.path("path").asText();
+            Map<String, String> headers = new LinkedHashMap<>();
+            entry.path("headers").fields().forEachRemaining(header -> headers.put(header.getKey(), header.getValue().asText()));
+            JsonNode body = entry.path("body");
+            String bodyText = body.isMissingNode() || body.isNull() ? null : body.isTextual() ? body.asText() : body.toString();
+            if (bodyText != null && !headers.containsKey("Content-Type")) {
+                headers.put("Content-Type", "application/json");
+            }
+            requests.add(new RecordedRequest(endpointOf(method, url), method, url, headers, bodyText, Collections.emptyMap()));
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,102 @@
+// RegistrationBenchmark.java
+package com.example.librarymanagementsystem.benchmark;
+
+import com.example.librarymanagementsystem.LibraryManagementSystemApplication;
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.entity.Book;
+import com.example.librarymanagementsystem.repository.BibliographicRecordRepository;
+import com.example.librarymanagementsystem.repository.BookRepository;
+import com.example.librarymanagementsystem.service.BookService;
+import com.example.librarymanagementsystem.util.BulkChunks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of registering one more copy of an ISBN as the number of copies already on file grows, against an
+ * in-memory H2 database. {@code registerBook} and {@code registryLookup} should stay flat across
+ * {@code copiesPerIsbn}; {@code legacyCopyScan} is the per-copy scan the registry replaced and grows linearly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistrationBenchmark {
+
+    private static final String ISBN = "9780132350884";
+    private static final String TITLE = "Clean Code";
+    private static final String AUTHOR = "Robert C. Martin";
+
+    @Param({"1", "100", "1000", "10000"})
+    private int copiesPerIsbn;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private BookRepository bookRepository;
+    private BibliographicRecordRepository bibliographicRecordRepository;
+    private BookDTO copy;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                // Command-line arguments, unlike default properties, take precedence over application-test.yml
+                .run("--spring.datasource.url=jdbc:h2:mem:registration;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--library.instrumentation.enabled=false",
+                        "--logging.level.root=warn");
+        bookService = context.getBean(BookService.class);
+        bookRepository = context.getBean(BookRepository.class);
+        bibliographicRecordRepository = context.getBean(BibliographicRecordRepository.class);
+
+        copy = new BookDTO(null, ISBN, TITLE, AUTHOR, null);
+        BulkChunks.register(Collections.nCopies(copiesPerIsbn, copy).iterator(), bookService::registerBooks);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookDTO registerBook() {
+        return bookService.registerBook(copy);
+    }
+
+    @Benchmark
+    public boolean registryLookup() {
+        return bibliographicRecordRepository.findById(ISBN)
+                .map(record -> record.matches(TITLE, AUTHOR))
+                .orElse(false);
+    }
+
+    @Benchmark
+    public boolean legacyCopyScan() {
+        List<Book> copies = bookRepository.findByIsbn(ISBN);
+        for (Book book : copies) {
+            if (!book.getTitle().equals(TITLE) || !book.getAuthor().equals(AUTHOR)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
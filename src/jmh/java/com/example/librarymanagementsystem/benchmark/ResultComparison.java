@@ -0,0 +1,105 @@
+// ResultComparison.java
+package com.example.librarymanagementsystem.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files, typically from two commits, benchmark by benchmark and parameter set by
+ * parameter set. A benchmark has regressed when its score got worse by more than the threshold and by more than the
+ * two runs' error margins combined, or when it allocates more than the threshold more bytes per operation
+ * ({@code gc.alloc.rate.norm}, present when run with {@code -prof gc}). Exits with status 1 if anything regressed.
+ * <p>
+ * Usage: {@code ResultComparison <baseline.json> <candidate.json> [threshold percent, default 10]}
+ */
+public final class ResultComparison {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private ResultComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ResultComparison <baseline.json> <candidate.json> [threshold percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> candidate = load(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %8s %12s %12s %8s%n",
+                "Benchmark", "Baseline", "Candidate", "Change", "B/op before", "B/op after", "Change");
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s%n", entry.getKey(), "(new)");
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            JsonNode scoreBefore = before.path("primaryMetric");
+            JsonNode scoreAfter = after.path("primaryMetric");
+            double change = relativeChange(scoreBefore.path("score").asDouble(), scoreAfter.path("score").asDouble());
+            double worse = higherIsBetter ? -change : change;
+            double margin = errorOf(scoreBefore) + errorOf(scoreAfter);
+            boolean slower = worse > threshold
+                    && Math.abs(scoreAfter.path("score").asDouble() - scoreBefore.path("score").asDouble()) > margin;
+
+            double allocationBefore = before.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble(Double.NaN);
+            double allocationAfter = after.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble(Double.NaN);
+            double allocationChange = relativeChange(allocationBefore, allocationAfter);
+            // A few bytes either way is noise from TLAB sampling, not a new allocation
+            boolean allocatesMore = allocationChange > threshold && allocationAfter - allocationBefore > 16;
+
+            boolean regressed = slower || allocatesMore;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+7.1f%% %12.0f %12.0f %+7.1f%%%s%n", entry.getKey(),
+                    scoreBefore.path("score").asDouble(), scoreAfter.path("score").asDouble(), change * 100,
+                    allocationBefore, allocationAfter, allocationChange * 100, regressed ? "  REGRESSION" : "");
+        }
+        baseline.keySet().stream()
+                .filter(key -> !candidate.containsKey(key))
+                .forEach(key -> System.out.printf("%-90s %14s%n", key, "(removed)"));
+
+        System.out.printf("%d of %d benchmarks regressed by more than %.0f%%%n", regressions, candidate.size(),
+                threshold * 100);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    // Results keyed by benchmark method and parameters, e.g. "...CatalogReadBenchmark.getAllBooks{catalogSize=1000}"
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            fields.forEachRemaining(field -> params.put(field.getKey(), field.getValue().asText()));
+            String key = result.path("benchmark").asText() + (params.isEmpty() ? "" : params.toString())
+                    + " threads=" + result.path("threads").asInt();
+            results.put(key, result);
+        }
+        return results;
+    }
+
+    private static double relativeChange(double before, double after) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before == 0) {
+            return 0;
+        }
+        return (after - before) / before;
+    }
+
+    private static double errorOf(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
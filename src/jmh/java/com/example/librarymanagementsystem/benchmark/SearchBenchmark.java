@@ -0,0 +1,86 @@
+// SearchBenchmark.java
+package com.example.librarymanagementsystem.benchmark;
+
+import com.example.librarymanagementsystem.service.impl.CatalogSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link CatalogSearchIndex#search} over a synthetic catalog of 100k and 1M ISBNs. Title words follow
+ * a skewed distribution, so {@code common} matches a large share of the catalog while {@code rare} matches a
+ * handful; {@code pair} combines a common and a mid-frequency word and {@code prefix} is a three-letter prefix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ra", "te", "su", "no", "vi", "de", "po", "shi",
+            "an", "el", "or", "um", "bri", "gan", "tor", "wen", "ly"};
+
+    @Param({"100000", "1000000"})
+    private int isbns;
+
+    @Param({"common", "rare", "pair", "prefix"})
+    private String query;
+
+    private CatalogSearchIndex searchIndex;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] words = new String[5000];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = word(i);
+        }
+        // No JdbcTemplate is needed: outside a transaction addCopy indexes immediately
+        searchIndex = new CatalogSearchIndex(null);
+        for (int i = 0; i < isbns; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 2 + random.nextInt(4); w > 0; w--) {
+                double skewed = Math.pow(random.nextDouble(), 3);
+                title.append(words[(int) (skewed * words.length)]).append(' ');
+            }
+            String author = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            searchIndex.addCopy(String.valueOf(9780000000000L + i), title.toString().trim(), author);
+        }
+        text = switch (query) {
+            case "common" -> words[0];
+            case "rare" -> words[4000];
+            case "pair" -> words[0] + " " + words[200];
+            case "prefix" -> words[300].substring(0, 3);
+            default -> throw new IllegalArgumentException(query);
+        };
+    }
+
+    @Benchmark
+    public List<CatalogSearchIndex.Entry> search() {
+        return searchIndex.search(text, 20);
+    }
+
+    private static String word(int n) {
+        StringBuilder word = new StringBuilder();
+        do {
+            word.append(SYLLABLES[n % SYLLABLES.length]);
+            n /= SYLLABLES.length;
+        } while (n > 0);
+        return word.toString();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.librarymanagementsystem.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Service-level caches for single book and borrower lookups, sized and expired through
+ * {@code spring.cache.caffeine.spec}. The cache advice is ordered outside the transaction advice, so an
+ * eviction happens after the write has committed and a concurrent read cannot re-cache the old row.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String BOOKS = "books";
+    public static final String BORROWERS = "borrowers";
+}
@@ -0,0 +1,33 @@
+// ChangeFeedProperties.java
+package com.example.librarymanagementsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "library.events")
+public class ChangeFeedProperties {
+
+    /** Most recent changes kept for subscribers resuming with Last-Event-ID. */
+    private int replayCapacity = 10000;
+
+    /** Changes a subscriber may fall behind by before it is disconnected. */
+    private int subscriberQueueCapacity = 256;
+
+    /** Concurrent subscribers; further ones are answered with 503. */
+    private int maxSubscribers = 10000;
+
+    /** Threads writing queued changes to subscribers. */
+    private int sendThreads = 4;
+
+    /** How long one send may block before its subscriber is disconnected and its thread replaced. */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    /** How long a subscription stays open before the client has to reconnect. */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /** Interval of the keep-alive comment sent to every subscriber. */
+    private Duration heartbeat = Duration.ofSeconds(15);
+}
@@ -0,0 +1,46 @@
+package com.example.librarymanagementsystem.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Defers the beans matched by {@code library.startup.lazy-beans} (class name prefixes, set by the {@code fast-start}
+ * profile) until something first uses them. Only beans no request or startup task depends on belong there, such as
+ * the API documentation ({@link SwaggerConfig} and the springdoc endpoints). Boot's global
+ * {@code spring.main.lazy-initialization} is not used because the catalog and availability indexes load in
+ * {@code afterSingletonsInstantiated}, which a lazy bean never receives.
+ */
+@Configuration
+public class FastStartConfig {
+
+    static final String LAZY_BEANS = "library.startup.lazy-beans";
+
+    // Static so it runs before, and without instantiating, the configuration class
+    @Bean
+    static BeanFactoryPostProcessor lazyBeans(Environment environment) {
+        List<String> prefixes = Binder.get(environment).bind(LAZY_BEANS, Bindable.listOf(String.class)).orElse(List.of());
+        return beanFactory -> {
+            if (prefixes.isEmpty()) {
+                return;
+            }
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                // A @Bean method's definition names its configuration class through the factory bean
+                String className = definition.getFactoryBeanName() != null
+                        && beanFactory.containsBeanDefinition(definition.getFactoryBeanName())
+                        ? beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName()
+                        : definition.getBeanClassName();
+                if (className != null && prefixes.stream().anyMatch(className::startsWith)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.instrumentation.InstrumentationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(InstrumentationProperties.class)
+public class InstrumentationConfig {
+}
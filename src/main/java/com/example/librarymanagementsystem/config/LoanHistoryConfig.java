@@ -0,0 +1,41 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.service.impl.LoanEventLog;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(LoanHistoryProperties.class)
+public class LoanHistoryConfig implements DisposableBean {
+
+    private HikariDataSource writerDataSource;
+
+    // The writer's pool is not a bean: a second DataSource (or JdbcTemplate, or transaction manager) would switch
+    // off Spring Boot's auto-configured ones
+    @Bean
+    public LoanEventLog loanEventLog(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+                                     LoanHistoryProperties properties, MeterRegistry registry) {
+        writerDataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        writerDataSource.setPoolName("loan-event-writer");
+        writerDataSource.setMaximumPoolSize(properties.getWriterPoolSize());
+        // Sync durability writes each event in the loan's transaction, so the writer pool need not keep a connection
+        writerDataSource.setMinimumIdle(properties.getDurability() == LoanHistoryProperties.Durability.SYNC ? 0 : 1);
+        return new LoanEventLog(jdbcTemplate, new JdbcTemplate(writerDataSource),
+                new DataSourceTransactionManager(writerDataSource), properties, registry);
+    }
+
+    // Runs after LoanEventLog has stopped and flushed what was still queued
+    @Override
+    public void destroy() {
+        if (writerDataSource != null) {
+            writerDataSource.close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+// LoanHistoryProperties.java
+package com.example.librarymanagementsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "library.loan-history")
+public class LoanHistoryProperties {
+
+    public enum Durability {
+        /** Inserted in the loan's own transaction. */
+        SYNC,
+        /** Queued after the loan commits; the request waits until the writer has inserted it. */
+        GROUP_COMMIT,
+        /** Queued after the loan commits; the request does not wait. */
+        ASYNC
+    }
+
+    private Durability durability = Durability.SYNC;
+
+    /** Events the in-memory queue holds before callers start writing their own. */
+    private int queueCapacity = 10000;
+
+    /** Most events inserted in one JDBC batch. */
+    private int batchSize = 500;
+
+    /** With async durability, how long the writer waits for a batch to fill before inserting what it has. */
+    private Duration flushInterval = Duration.ofMillis(50);
+
+    /** How long a caller waits for room in a full queue before inserting its event itself. */
+    private Duration enqueueTimeout = Duration.ofMillis(100);
+
+    /** With group-commit durability, the longest a request waits for its event to be written. */
+    private Duration commitTimeout = Duration.ofSeconds(5);
+
+    /** Connections the background writer and callers writing their own events draw from, apart from the main pool. */
+    private int writerPoolSize = 2;
+
+    /** Age after which events are moved to loan_event_archive. */
+    private Duration retention = Duration.ofDays(365);
+
+    /** Most events moved to the archive per transaction. */
+    private int archiveBatchSize = 10000;
+}
@@ -0,0 +1,13 @@
+package com.example.librarymanagementsystem.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} methods for the whole application: the loan history archiver and the availability
+ * counters' periodic recount.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
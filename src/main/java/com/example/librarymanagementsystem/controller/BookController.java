@@ -1,14 +1,25 @@
 // BookController.java
 package com.example.librarymanagementsystem.controller;
 
+import com.example.librarymanagementsystem.dto.BookAvailabilityDTO;
 import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.BookSearchResultDTO;
+import com.example.librarymanagementsystem.dto.BulkItemResultDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
 import com.example.librarymanagementsystem.service.BookService;
+import com.example.librarymanagementsystem.util.BulkChunks;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -17,33 +28,109 @@ public class BookController {
     private static final Logger logger = LoggerFactory.getLogger(BookController.class);
 
     private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, ObjectMapper objectMapper, CatalogVersion catalogVersion) {
         this.bookService = bookService;
+        this.objectMapper = objectMapper;
+        this.catalogVersion = catalogVersion;
     }
 
     @PostMapping
     public ResponseEntity<BookDTO> registerBook(@RequestBody BookDTO bookDTO) {
-        logger.info("Request to create book: {}", bookDTO);
+        logger.debug("Request to create book: {}", bookDTO);
         try {
             BookDTO savedBook = bookService.registerBook(bookDTO);
+            catalogVersion.changed();
             return new ResponseEntity<>(savedBook, HttpStatus.CREATED);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BulkItemResultDTO>> registerBooks(@RequestBody List<BookDTO> bookDTOs) {
+        logger.info("Request to bulk create {} books", bookDTOs.size());
+        try {
+            return ResponseEntity.ok(BulkChunks.register(bookDTOs.iterator(), bookService::registerBooks));
+        } finally {
+            // Earlier chunks stay committed even when a later one fails
+            catalogVersion.changed();
+        }
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<BulkItemResultDTO>> registerBooksStream(InputStream body) throws IOException {
+        logger.info("Request to bulk create books from a stream");
+        try (MappingIterator<BookDTO> bookDTOs = objectMapper.readerFor(BookDTO.class).readValues(body)) {
+            return ResponseEntity.ok(BulkChunks.register(bookDTOs, bookService::registerBooks));
+        } finally {
+            catalogVersion.changed();
+        }
+    }
+
     @GetMapping
-    public ResponseEntity<List<BookDTO>> getAllBooks() {
-        logger.info("Request to get All books");
-        List<BookDTO> books = bookService.getAllBooks();
-        return ResponseEntity.ok(books);
+    public ResponseEntity<CursorPageDTO<? extends BookDTO>> getAllBooks(@RequestParam(required = false) Long after,
+                                                                        @RequestParam(required = false) Integer limit,
+                                                                        @RequestParam(required = false) String author,
+                                                                        @RequestParam(required = false) String isbn,
+                                                                        @RequestParam(required = false) Boolean available,
+                                                                        @RequestParam(defaultValue = "false") boolean includeBorrower,
+                                                                        WebRequest request) {
+        logger.info("Request to get books after: {}, limit: {}", after, limit);
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        CursorPageDTO<? extends BookDTO> page = includeBorrower
+                ? bookService.getBooksWithBorrowers(after, limit, author, isbn, available)
+                : bookService.getBooks(after, limit, author, isbn, available);
+        return ResponseEntity.ok().eTag(etag).body(page);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<BookSearchResultDTO>> searchBooks(@RequestParam String q,
+                                                                 @RequestParam(required = false) Integer limit,
+                                                                 WebRequest request) {
+        logger.info("Request to search books for: {}", q);
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(bookService.searchBooks(q, limit));
+    }
+
+    @GetMapping("/availability/{isbn}")
+    public ResponseEntity<BookAvailabilityDTO> getAvailability(@PathVariable String isbn, WebRequest request) {
+        logger.info("Request to get availability of ISBN: {}", isbn);
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(bookService.getAvailability(isbn));
+    }
+
+    // Availability of many ISBNs in request order; an ISBN with no copies reports zero
+    @GetMapping("/availability")
+    public ResponseEntity<List<BookAvailabilityDTO>> getAvailability(@RequestParam List<String> isbns, WebRequest request) {
+        logger.info("Request to get availability of {} ISBNs", isbns.size());
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(bookService.getAvailability(isbns));
     }
 
     @GetMapping("/{bookId}")
-    public ResponseEntity<BookDTO> getBookDetails(@PathVariable Long bookId) {
+    public ResponseEntity<BookDTO> getBookDetails(@PathVariable Long bookId, WebRequest request) {
         logger.info("Request to get book with id: {}", bookId);
+        // Read the version before the data: a write racing this read can only make the tag older, never newer
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         BookDTO bookDTO = bookService.getBookById(bookId);
-        return ResponseEntity.ok(bookDTO);
+        return ResponseEntity.ok().eTag(etag).body(bookDTO);
     }
 }
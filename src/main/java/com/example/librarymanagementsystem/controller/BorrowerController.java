@@ -1,15 +1,27 @@
 // BorrowerController.java
 package com.example.librarymanagementsystem.controller;
 
+import com.example.librarymanagementsystem.dto.BookDTO;
 import com.example.librarymanagementsystem.dto.BorrowerDTO;
+import com.example.librarymanagementsystem.dto.BulkItemResultDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import com.example.librarymanagementsystem.dto.LoanEventDTO;
 import com.example.librarymanagementsystem.service.BorrowerService;
+import com.example.librarymanagementsystem.util.BulkChunks;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/borrowers")
@@ -17,43 +29,117 @@ public class BorrowerController {
     private static final Logger logger = LoggerFactory.getLogger(BorrowerController.class);
 
     private final BorrowerService borrowerService;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
 
-    public BorrowerController(BorrowerService borrowerService) {
+    public BorrowerController(BorrowerService borrowerService, ObjectMapper objectMapper, CatalogVersion catalogVersion) {
         this.borrowerService = borrowerService;
+        this.objectMapper = objectMapper;
+        this.catalogVersion = catalogVersion;
     }
 
     @PostMapping
     public ResponseEntity<BorrowerDTO> registerBorrower(@RequestBody BorrowerDTO borrowerDTO) {
-        logger.info("Request to create borrower: {}", borrowerDTO);
+        logger.debug("Request to create borrower: {}", borrowerDTO);
         BorrowerDTO savedBorrower = borrowerService.registerBorrower(borrowerDTO);
+        catalogVersion.changed();
         return new ResponseEntity<>(savedBorrower, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BulkItemResultDTO>> registerBorrowers(@RequestBody List<BorrowerDTO> borrowerDTOs) {
+        logger.info("Request to bulk create {} borrowers", borrowerDTOs.size());
+        try {
+            return ResponseEntity.ok(BulkChunks.register(borrowerDTOs.iterator(), borrowerService::registerBorrowers));
+        } finally {
+            catalogVersion.changed();
+        }
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<BulkItemResultDTO>> registerBorrowersStream(InputStream body) throws IOException {
+        logger.info("Request to bulk create borrowers from a stream");
+        try (MappingIterator<BorrowerDTO> borrowerDTOs = objectMapper.readerFor(BorrowerDTO.class).readValues(body)) {
+            return ResponseEntity.ok(BulkChunks.register(borrowerDTOs, borrowerService::registerBorrowers));
+        } finally {
+            catalogVersion.changed();
+        }
+    }
+
     @PostMapping("/{borrowerId}/borrow/{bookId}")
     public ResponseEntity<String> borrowBook(@PathVariable Long borrowerId, @PathVariable Long bookId) {
         logger.info("Request to borrow book with borrowerId: {}, bookId: {}", borrowerId, bookId);
         borrowerService.borrowBook(borrowerId, bookId);
+        catalogVersion.changed();
         return ResponseEntity.ok("Book borrowed successfully");
     }
 
+    @PostMapping("/{borrowerId}/borrow/isbn/{isbn}")
+    public ResponseEntity<Long> borrowAvailableCopy(@PathVariable Long borrowerId, @PathVariable String isbn) {
+        logger.info("Request to borrow any copy with borrowerId: {}, isbn: {}", borrowerId, isbn);
+        Long bookId = borrowerService.borrowAvailableCopy(borrowerId, isbn);
+        catalogVersion.changed();
+        return ResponseEntity.ok(bookId);
+    }
+
     @PostMapping("/{borrowerId}/return/{bookId}")
     public ResponseEntity<String> returnBook(@PathVariable Long borrowerId, @PathVariable Long bookId) {
         logger.info("Request to return book with borrowerId: {}, bookId: {}", borrowerId, bookId);
         borrowerService.returnBook(borrowerId, bookId);
+        catalogVersion.changed();
         return ResponseEntity.ok("Book returned successfully");
     }
 
     @GetMapping
-    public ResponseEntity<List<BorrowerDTO>> getAllBorrowers() {
-        logger.info("Request to get all borrowers");
-        List<BorrowerDTO> borrowers = borrowerService.getAllBorrowers();
-        return ResponseEntity.ok(borrowers);
+    public ResponseEntity<CursorPageDTO<BorrowerDTO>> getAllBorrowers(@RequestParam(required = false) Long after,
+                                                                      @RequestParam(required = false) Integer limit,
+                                                                      WebRequest request) {
+        logger.info("Request to get borrowers after: {}, limit: {}", after, limit);
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(borrowerService.getBorrowers(after, limit));
     }
 
     @GetMapping("/{borrowerId}")
-    public ResponseEntity<BorrowerDTO> getBorrowerDetails(@PathVariable Long borrowerId) {
+    public ResponseEntity<BorrowerDTO> getBorrowerDetails(@PathVariable Long borrowerId, WebRequest request) {
         logger.info("Request to get borrower with id: {}", borrowerId);
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         BorrowerDTO borrowerDTO = borrowerService.getBorrowerById(borrowerId);
-        return ResponseEntity.ok(borrowerDTO);
+        return ResponseEntity.ok().eTag(etag).body(borrowerDTO);
+    }
+
+    @GetMapping("/{borrowerId}/books")
+    public ResponseEntity<List<BookDTO>> getBorrowedBooks(@PathVariable Long borrowerId, WebRequest request) {
+        logger.info("Request to get books on loan to borrower with id: {}", borrowerId);
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(borrowerService.getBorrowedBooks(borrowerId));
+    }
+
+    // Loans of many borrowers in one request, keyed by borrower id; unknown ids map to an empty list
+    @GetMapping("/books")
+    public ResponseEntity<Map<Long, List<BookDTO>>> getBorrowedBooks(@RequestParam List<Long> ids, WebRequest request) {
+        logger.info("Request to get books on loan to {} borrowers", ids.size());
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(borrowerService.getBorrowedBooks(ids));
+    }
+
+    // No ETag: with group-commit or async durability an event can land after the write that bumped the catalog version
+    @GetMapping("/{borrowerId}/history")
+    public ResponseEntity<CursorPageDTO<LoanEventDTO>> getLoanHistory(@PathVariable Long borrowerId,
+                                                                      @RequestParam(required = false) Long after,
+                                                                      @RequestParam(required = false) Integer limit) {
+        logger.info("Request to get loan history of borrower with id: {}, after: {}, limit: {}", borrowerId, after, limit);
+        return ResponseEntity.ok(borrowerService.getLoanHistory(borrowerId, after, limit));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+// ChangeFeedController.java
+package com.example.librarymanagementsystem.controller;
+
+import com.example.librarymanagementsystem.config.ChangeFeedProperties;
+import com.example.librarymanagementsystem.service.impl.ChangeFeed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+public class ChangeFeedController {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedController.class);
+
+    private final ChangeFeed changeFeed;
+    private final ChangeFeedProperties properties;
+
+    public ChangeFeedController(ChangeFeed changeFeed, ChangeFeedProperties properties) {
+        this.changeFeed = changeFeed;
+        this.properties = properties;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        logger.debug("Request to subscribe to changes after: {}", lastEventId);
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        if (!changeFeed.subscribe(emitter, lastEventId)) {
+            logger.warn("Change feed subscription refused: {} subscribers already connected", changeFeed.subscriberCount());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+}
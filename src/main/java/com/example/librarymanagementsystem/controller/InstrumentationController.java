@@ -0,0 +1,36 @@
+// InstrumentationController.java
+package com.example.librarymanagementsystem.controller;
+
+import com.example.librarymanagementsystem.dto.LogAppenderStatsDTO;
+import com.example.librarymanagementsystem.dto.OperationTimingDTO;
+import com.example.librarymanagementsystem.instrumentation.LoggingPipelineStats;
+import com.example.librarymanagementsystem.instrumentation.OperationTimings;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/instrumentation")
+public class InstrumentationController {
+
+    private final OperationTimings operationTimings;
+    private final LoggingPipelineStats loggingPipelineStats;
+
+    public InstrumentationController(OperationTimings operationTimings, LoggingPipelineStats loggingPipelineStats) {
+        this.operationTimings = operationTimings;
+        this.loggingPipelineStats = loggingPipelineStats;
+    }
+
+    @GetMapping("/timings")
+    public ResponseEntity<List<OperationTimingDTO>> getTimings() {
+        return ResponseEntity.ok(operationTimings.snapshot());
+    }
+
+    @GetMapping("/logging")
+    public ResponseEntity<List<LogAppenderStatsDTO>> getLoggingStats() {
+        return ResponseEntity.ok(loggingPipelineStats.snapshot());
+    }
+}
@@ -0,0 +1,18 @@
+// BookAvailabilityDTO.java
+package com.example.librarymanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How many copies of an ISBN the library holds and how many of them are not on loan.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookAvailabilityDTO {
+    private String isbn;
+    private int copies;
+    private int availableCopies;
+}
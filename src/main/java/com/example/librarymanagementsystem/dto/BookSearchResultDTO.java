@@ -0,0 +1,20 @@
+// BookSearchResultDTO.java
+package com.example.librarymanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One ISBN matching a search, standing for all of its copies.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookSearchResultDTO {
+    private String isbn;
+    private String title;
+    private String author;
+    private int copies;
+    private int availableCopies;
+}
@@ -0,0 +1,26 @@
+// BookWithBorrowerDTO.java
+package com.example.librarymanagementsystem.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A book listed together with the name and email of its current borrower, both {@code null} while it is on the shelf.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@NoArgsConstructor
+public class BookWithBorrowerDTO extends BookDTO {
+    private String borrowerName;
+    private String borrowerEmail;
+
+    public BookWithBorrowerDTO(Long id, String isbn, String title, String author,
+                               Long borrowerId, String borrowerName, String borrowerEmail) {
+        super(id, isbn, title, author, borrowerId);
+        this.borrowerName = borrowerName;
+        this.borrowerEmail = borrowerEmail;
+    }
+}
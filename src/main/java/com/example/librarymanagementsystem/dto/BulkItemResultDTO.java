@@ -0,0 +1,33 @@
+// BulkItemResultDTO.java
+package com.example.librarymanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one entry of a bulk request; {@code index} is the entry's zero-based position in the request body.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkItemResultDTO {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    private int index;
+    private Status status;
+    private Long id;
+    private String error;
+
+    public static BulkItemResultDTO created(int index, Long id) {
+        return new BulkItemResultDTO(index, Status.CREATED, id, null);
+    }
+
+    public static BulkItemResultDTO rejected(int index, String error) {
+        return new BulkItemResultDTO(index, Status.REJECTED, null, error);
+    }
+}
@@ -0,0 +1,20 @@
+// CursorPageDTO.java
+package com.example.librarymanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is the id to pass as {@code after}
+ * to fetch the following page, or {@code null} when the last page has been reached.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private Long nextCursor;
+}
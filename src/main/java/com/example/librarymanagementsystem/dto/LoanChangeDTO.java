@@ -0,0 +1,14 @@
+// LoanChangeDTO.java
+package com.example.librarymanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanChangeDTO {
+    private Long bookId;
+    private Long borrowerId;
+}
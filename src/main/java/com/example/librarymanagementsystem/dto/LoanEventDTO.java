@@ -0,0 +1,20 @@
+// LoanEventDTO.java
+package com.example.librarymanagementsystem.dto;
+
+import com.example.librarymanagementsystem.entity.LoanEventType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanEventDTO {
+    private Long id;
+    private Long bookId;
+    private Long borrowerId;
+    private LoanEventType type;
+    private Instant occurredAt;
+}
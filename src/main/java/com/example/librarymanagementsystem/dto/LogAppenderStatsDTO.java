@@ -0,0 +1,17 @@
+// LogAppenderStatsDTO.java
+package com.example.librarymanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LogAppenderStatsDTO {
+    private String appender;
+    private int queueSize;
+    private int queued;
+    private long discarded;
+    private long dropped;
+}
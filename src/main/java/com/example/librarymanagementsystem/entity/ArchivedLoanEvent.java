@@ -0,0 +1,40 @@
+// ArchivedLoanEvent.java
+package com.example.librarymanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * A {@link LoanEvent} past the retention period, keeping the id it was given in {@code loan_event}.
+ */
+@Entity
+@Table(name = "loan_event_archive", indexes = {
+        @Index(name = "idx_loan_event_archive_borrower", columnList = "borrower_id, id"),
+        @Index(name = "idx_loan_event_archive_occurred_at", columnList = "occurred_at")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedLoanEvent {
+    @Id
+    private Long id;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "borrower_id", nullable = false)
+    private Long borrowerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private LoanEventType type;
+
+    @JdbcTypeCode(SqlTypes.TIMESTAMP)
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+}
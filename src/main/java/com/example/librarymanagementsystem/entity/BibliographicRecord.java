@@ -0,0 +1,59 @@
+// BibliographicRecord.java
+package com.example.librarymanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * The title and author every copy with a given ISBN must carry. Keyed by ISBN, so checking a new copy
+ * is a single primary-key lookup however many copies already exist.
+ */
+@Entity
+@Table(name = "bibliographic_record")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BibliographicRecord implements Persistable<String> {
+    @Id
+    private String isbn;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false)
+    private String author;
+
+    // The id is assigned, so tell Spring Data when to persist instead of paying for merge's extra SELECT
+    @Transient
+    @Builder.Default
+    private boolean persisted = false;
+
+    public BibliographicRecord(String isbn, String title, String author) {
+        this(isbn, title, author, false);
+    }
+
+    @Override
+    public String getId() {
+        return isbn;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
+    public boolean matches(String title, String author) {
+        return this.title.equals(title) && this.author.equals(author);
+    }
+}
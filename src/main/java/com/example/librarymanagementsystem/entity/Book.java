@@ -8,14 +8,23 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 
 @Entity
-@Table(name = "book")
+// The schema is created by the scripts in db/migration; these declarations mirror them for tests that let Hibernate
+// create the tables. (isbn, borrower_id) serves the per-ISBN filters and free-copy lookups, borrower_id a borrower's
+// loans and author the author filter; title and author stay on the copy for listing and export
+@Table(name = "book", indexes = {
+        @Index(name = "idx_book_isbn_borrower", columnList = "isbn, borrower_id"),
+        @Index(name = "idx_book_borrower", columnList = "borrower_id"),
+        @Index(name = "idx_book_author", columnList = "author, id")})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Book {
+    // Pooled table generator rather than IDENTITY so Hibernate knows ids before INSERT and can batch them
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "book_id")
+    @TableGenerator(name = "book_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "book", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -15,8 +15,11 @@ import lombok.Builder;
 @AllArgsConstructor
 @Builder
 public class Borrower {
+    // Shares the book's id_generator table so bulk imports can batch their inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "borrower_id")
+    @TableGenerator(name = "borrower_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "borrower", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -0,0 +1,46 @@
+// LoanEvent.java
+package com.example.librarymanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * One borrow or return. Rows are only ever appended, in JDBC batches by the loan event writer, and moved to
+ * {@link ArchivedLoanEvent} once they are older than the retention period.
+ */
+@Entity
+@Table(name = "loan_event", indexes = {
+        @Index(name = "idx_loan_event_borrower", columnList = "borrower_id, id"),
+        @Index(name = "idx_loan_event_occurred_at", columnList = "occurred_at")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoanEvent {
+    // IDENTITY is fine here: events are inserted through plain JDBC batches that never need the id back
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "borrower_id", nullable = false)
+    private Long borrowerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private LoanEventType type;
+
+    // A plain TIMESTAMP column, bound the same way by Hibernate and by the JDBC writer and archiver
+    @JdbcTypeCode(SqlTypes.TIMESTAMP)
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+}
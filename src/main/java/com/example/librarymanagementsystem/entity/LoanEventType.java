@@ -0,0 +1,7 @@
+// LoanEventType.java
+package com.example.librarymanagementsystem.entity;
+
+public enum LoanEventType {
+    BORROW,
+    RETURN
+}
@@ -0,0 +1,7 @@
+package com.example.librarymanagementsystem.exception;
+
+public class NoAvailableCopyException extends RuntimeException {
+    public NoAvailableCopyException(String message) {
+        super(message);
+    }
+}
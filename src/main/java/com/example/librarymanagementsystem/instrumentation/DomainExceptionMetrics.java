@@ -0,0 +1,54 @@
+// DomainExceptionMetrics.java
+package com.example.librarymanagementsystem.instrumentation;
+
+import com.example.librarymanagementsystem.exception.BookAlreadyBorrowedException;
+import com.example.librarymanagementsystem.exception.BookNotBorrowedException;
+import com.example.librarymanagementsystem.exception.DuplicateBorrowerEmailException;
+import com.example.librarymanagementsystem.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Counts domain exceptions leaving the {@code *Service} interfaces as {@code library.domain.exceptions{exception=...}}.
+ * The counters are registered up front so every type is scraped, at zero, before it first occurs.
+ */
+@Aspect
+@Component
+public class DomainExceptionMetrics {
+
+    static final String METER_NAME = "library.domain.exceptions";
+
+    static final String SERVICES = "execution(* com.example.librarymanagementsystem.service.*Service+.*(..))";
+
+    private static final List<Class<? extends RuntimeException>> DOMAIN_EXCEPTIONS = List.of(
+            BookAlreadyBorrowedException.class,
+            BookNotBorrowedException.class,
+            DuplicateBorrowerEmailException.class,
+            ResourceNotFoundException.class);
+
+    private final Map<Class<?>, Counter> counters;
+
+    public DomainExceptionMetrics(MeterRegistry meterRegistry) {
+        this.counters = DOMAIN_EXCEPTIONS.stream().collect(Collectors.toUnmodifiableMap(Function.identity(),
+                type -> Counter.builder(METER_NAME)
+                        .description("Domain exceptions thrown by the service layer")
+                        .tag("exception", type.getSimpleName())
+                        .register(meterRegistry)));
+    }
+
+    @AfterThrowing(pointcut = SERVICES, throwing = "exception")
+    public void count(RuntimeException exception) {
+        Counter counter = counters.get(exception.getClass());
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
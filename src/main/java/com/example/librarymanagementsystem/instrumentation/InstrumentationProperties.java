@@ -0,0 +1,22 @@
+// InstrumentationProperties.java
+package com.example.librarymanagementsystem.instrumentation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.instrumentation")
+public class InstrumentationProperties {
+
+    /** Times controller and service calls when true. */
+    private boolean enabled = true;
+
+    /** Fraction of calls that are timed, from 0.0 to 1.0. */
+    private double sampleRate = 1.0;
+
+    /** Logs arguments and results of timed calls at DEBUG. Off by default because it stringifies payloads. */
+    private boolean debugPayloads = false;
+
+    /** Longest argument or result text written by debug payload logging. */
+    private int maxPayloadLength = 256;
+}
@@ -0,0 +1,29 @@
+// LendingMetrics.java
+package com.example.librarymanagementsystem.instrumentation;
+
+import com.example.librarymanagementsystem.service.impl.AvailabilityCounters;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Catalog-level gauges. {@code library.books.on.loan} is added up from the in-memory {@link AvailabilityCounters}
+ * when the registry is scraped, so a scrape never queries the database.
+ */
+@Component
+public class LendingMetrics implements MeterBinder {
+
+    private final AvailabilityCounters availabilityCounters;
+
+    public LendingMetrics(AvailabilityCounters availabilityCounters) {
+        this.availabilityCounters = availabilityCounters;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("library.books.on.loan", availabilityCounters, AvailabilityCounters::onLoan)
+                .description("Copies currently lent to a borrower")
+                .register(registry);
+    }
+}
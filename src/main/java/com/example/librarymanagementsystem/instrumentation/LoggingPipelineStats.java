@@ -0,0 +1,90 @@
+// LoggingPipelineStats.java
+package com.example.librarymanagementsystem.instrumentation;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.example.librarymanagementsystem.dto.LogAppenderStatsDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Reads queue depth and loss counters from the {@link MeteredAsyncAppender}s attached to the root logger, and
+ * publishes them as {@code library.logging.*} meters tagged with the appender name. Appenders are looked up on
+ * every call because Spring Boot re-initializes Logback during startup. Without the async-logs profile there are no
+ * async appenders and no meters.
+ */
+@Component
+public class LoggingPipelineStats implements MeterBinder {
+
+    public List<MeteredAsyncAppender> asyncAppenders() {
+        List<MeteredAsyncAppender> appenders = new ArrayList<>();
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            Iterator<Appender<ILoggingEvent>> iterator = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+            while (iterator.hasNext()) {
+                if (iterator.next() instanceof MeteredAsyncAppender appender) {
+                    appenders.add(appender);
+                }
+            }
+        }
+        return appenders;
+    }
+
+    public List<LogAppenderStatsDTO> snapshot() {
+        return asyncAppenders().stream()
+                .map(appender -> new LogAppenderStatsDTO(
+                        appender.getName(),
+                        appender.getQueueSize(),
+                        appender.getNumberOfElementsInQueue(),
+                        appender.getDiscardedCount(),
+                        appender.getDroppedCount()))
+                .toList();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (MeteredAsyncAppender appender : asyncAppenders()) {
+            String name = appender.getName();
+            Gauge.builder("library.logging.queue.depth", this,
+                            stats -> stats.read(name, MeteredAsyncAppender::getNumberOfElementsInQueue))
+                    .description("Log events waiting in the async appender queue")
+                    .tag("appender", name)
+                    .register(registry);
+            Gauge.builder("library.logging.queue.capacity", this,
+                            stats -> stats.read(name, MeteredAsyncAppender::getQueueSize))
+                    .description("Capacity of the async appender queue")
+                    .tag("appender", name)
+                    .register(registry);
+            FunctionCounter.builder("library.logging.events.discarded", this,
+                            stats -> stats.read(name, MeteredAsyncAppender::getDiscardedCount))
+                    .description("Events below WARN discarded because the queue was nearly full")
+                    .tag("appender", name)
+                    .register(registry);
+            FunctionCounter.builder("library.logging.events.dropped", this,
+                            stats -> stats.read(name, MeteredAsyncAppender::getDroppedCount))
+                    .description("Events dropped because the queue was full and never-block is set")
+                    .tag("appender", name)
+                    .register(registry);
+        }
+    }
+
+    // The appender currently attached under this name; NaN once it is gone, so the series stops rather than lies
+    private double read(String name, ToLongFunction<MeteredAsyncAppender> value) {
+        for (MeteredAsyncAppender appender : asyncAppenders()) {
+            if (name.equals(appender.getName())) {
+                return value.applyAsLong(appender);
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,49 @@
+// OperationTimings.java
+package com.example.librarymanagementsystem.instrumentation;
+
+import com.example.librarymanagementsystem.dto.OperationTimingDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of one {@link LatencyHistogram} per timed operation, keyed by {@code SimpleClassName.method}.
+ */
+@Component
+public class OperationTimings {
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public LatencyHistogram histogram(String operation) {
+        return histograms.computeIfAbsent(operation, key -> new LatencyHistogram());
+    }
+
+    public void record(String operation, long nanos) {
+        histogram(operation).record(nanos);
+    }
+
+    public List<OperationTimingDTO> snapshot() {
+        return histograms.entrySet().stream()
+                .map(entry -> toTiming(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparing(OperationTimingDTO::getOperation))
+                .toList();
+    }
+
+    private static OperationTimingDTO toTiming(String operation, LatencyHistogram histogram) {
+        return new OperationTimingDTO(
+                operation,
+                histogram.getCount(),
+                toMicros(histogram.percentile(0.50)),
+                toMicros(histogram.percentile(0.99)),
+                toMicros(histogram.percentile(0.999)),
+                toMicros(histogram.getMax()));
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
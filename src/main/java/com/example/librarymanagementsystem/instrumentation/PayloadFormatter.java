@@ -0,0 +1,90 @@
+package com.example.librarymanagementsystem.instrumentation;
+
+import org.springframework.http.HttpEntity;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Renders arguments and results for debug logging without ever building more than {@code maxLength}
+ * characters; collections are described by their size and walked only until the limit is reached.
+ * Only strings and scalar values are written out. Any other object is shown by type name and id, if it has
+ * one, so its {@code toString()} is never called and a large DTO is never rendered just to be cut.
+ */
+final class PayloadFormatter {
+
+    private static final ClassValue<Optional<Method>> ID_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Optional<Method> computeValue(Class<?> type) {
+            try {
+                return Optional.of(type.getMethod("getId"));
+            } catch (NoSuchMethodException e) {
+                return Optional.empty();
+            }
+        }
+    };
+
+    private PayloadFormatter() {
+    }
+
+    static String format(Object value, int maxLength) {
+        StringBuilder out = new StringBuilder(Math.min(maxLength, 64) + 16);
+        append(out, value, maxLength);
+        return out.toString();
+    }
+
+    private static void append(StringBuilder out, Object value, int maxLength) {
+        if (value instanceof Object[] array) {
+            append(out, Arrays.asList(array), maxLength);
+        } else if (value instanceof Collection<?> collection) {
+            out.append("[size=").append(collection.size()).append(']');
+            Iterator<?> iterator = collection.iterator();
+            while (iterator.hasNext() && out.length() < maxLength) {
+                out.append(' ');
+                append(out, iterator.next(), maxLength);
+            }
+            if (iterator.hasNext()) {
+                out.append(" ...");
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            out.append("{size=").append(map.size()).append('}');
+        } else if (value instanceof HttpEntity<?> entity) {
+            append(out, entity.getBody(), maxLength);
+        } else if (value instanceof Optional<?> optional) {
+            append(out, optional.orElse(null), maxLength);
+        } else if (value instanceof CharSequence text) {
+            appendBounded(out, text, maxLength);
+        } else if (value == null || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum<?>) {
+            appendBounded(out, String.valueOf(value), maxLength);
+        } else {
+            appendBounded(out, value.getClass().getSimpleName(), maxLength);
+            Optional<Method> idAccessor = ID_ACCESSORS.get(value.getClass());
+            if (idAccessor.isPresent() && out.length() < maxLength) {
+                out.append('#');
+                appendBounded(out, String.valueOf(invoke(idAccessor.get(), value)), maxLength);
+            }
+        }
+    }
+
+    private static void appendBounded(StringBuilder out, CharSequence text, int maxLength) {
+        int remaining = Math.max(0, maxLength - out.length());
+        if (text.length() > remaining) {
+            out.append(text, 0, remaining).append("...");
+        } else {
+            out.append(text);
+        }
+    }
+
+    private static Object invoke(Method accessor, Object target) {
+        try {
+            return accessor.invoke(target);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return "?";
+        }
+    }
+}
@@ -0,0 +1,48 @@
+// StartupMetrics.java
+package com.example.librarymanagementsystem.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes {@code library.startup.first.request}: the time from JVM start until the first HTTP request (usually a
+ * readiness probe) has been answered. Unlike {@code application.ready.time} it includes whatever initialization
+ * that first request still triggers, such as beans left lazy by the {@code fast-start} profile. The gauge reads NaN
+ * until then.
+ */
+@Component
+public class StartupMetrics implements MeterBinder, ApplicationListener<ServletRequestHandledEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupMetrics.class);
+
+    private final AtomicLong firstRequestMillis = new AtomicLong(-1);
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder("library.startup.first.request", firstRequestMillis, TimeUnit.MILLISECONDS,
+                        millis -> millis.get() < 0 ? Double.NaN : millis.get())
+                .description("Time from JVM start until the first HTTP request was answered")
+                .register(registry);
+    }
+
+    // Published by the DispatcherServlet after every request; only the first one is recorded
+    @Override
+    public void onApplicationEvent(ServletRequestHandledEvent event) {
+        if (firstRequestMillis.get() < 0) {
+            long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+            if (firstRequestMillis.compareAndSet(-1, uptime)) {
+                logger.info("First request ({}) answered {} ms after JVM start", event.getRequestUrl(), uptime);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+// TimingAspect.java
+package com.example.librarymanagementsystem.instrumentation;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Times REST endpoints and the methods of the {@code *Service} interfaces with {@link System#nanoTime()} and records
+ * them into {@link OperationTimings}. Helpers such as the availability index or the change feed are not advised, so
+ * they are neither proxied nor timed. Service methods annotated with Micrometer's {@code @Timed} are left to
+ * Micrometer, so no call is timed twice. Unsampled calls pass straight through; arguments and results are only
+ * rendered when debug payload logging is switched on.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "library.instrumentation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TimingAspect {
+
+    static final String BOUNDARIES = "(@within(org.springframework.web.bind.annotation.RestController)"
+            + " && within(com.example.librarymanagementsystem.controller..*))"
+            + " || (execution(* com.example.librarymanagementsystem.service.*Service+.*(..))"
+            + " && !@annotation(io.micrometer.core.annotation.Timed))";
+
+    private static final Logger log = LoggerFactory.getLogger(TimingAspect.class);
+
+    private final OperationTimings operationTimings;
+    private final InstrumentationProperties properties;
+    private final Map<Method, LatencyHistogram> histogramsByMethod = new ConcurrentHashMap<>();
+
+    public TimingAspect(OperationTimings operationTimings, InstrumentationProperties properties) {
+        this.operationTimings = operationTimings;
+        this.properties = properties;
+    }
+
+    @Around(BOUNDARIES)
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!isSampled()) {
+            return joinPoint.proceed();
+        }
+        boolean debugPayloads = properties.isDebugPayloads() && log.isDebugEnabled();
+        if (debugPayloads) {
+            log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(),
+                    PayloadFormatter.format(joinPoint.getArgs(), properties.getMaxPayloadLength()));
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            if (debugPayloads) {
+                log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(),
+                        PayloadFormatter.format(result, properties.getMaxPayloadLength()));
+            }
+            return result;
+        } finally {
+            histogramFor(joinPoint).record(System.nanoTime() - start);
+        }
+    }
+
+    private boolean isSampled() {
+        double sampleRate = properties.getSampleRate();
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private LatencyHistogram histogramFor(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return histogramsByMethod.computeIfAbsent(method,
+                key -> operationTimings.histogram(joinPoint.getTarget().getClass().getSimpleName() + "." + key.getName()));
+    }
+}
@@ -0,0 +1,37 @@
+// BookMapper.java
+package com.example.librarymanagementsystem.mapper;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.entity.Book;
+import com.example.librarymanagementsystem.entity.Borrower;
+import org.springframework.stereotype.Component;
+
+/**
+ * Field-by-field mapping between {@link Book} and {@link BookDTO}. Reading the borrower id goes through
+ * {@code getId()} on the association, which Hibernate answers from the proxy without loading the borrower.
+ */
+@Component
+public class BookMapper {
+
+    public BookDTO toDto(Book book) {
+        Borrower borrower = book.getBorrower();
+        return new BookDTO(
+                book.getId(),
+                book.getIsbn(),
+                book.getTitle(),
+                book.getAuthor(),
+                borrower != null ? borrower.getId() : null);
+    }
+
+    /**
+     * The borrower association is left unset; callers resolve {@code borrowerId} against the repository.
+     */
+    public Book toEntity(BookDTO bookDTO) {
+        return Book.builder()
+                .id(bookDTO.getId())
+                .isbn(bookDTO.getIsbn())
+                .title(bookDTO.getTitle())
+                .author(bookDTO.getAuthor())
+                .build();
+    }
+}
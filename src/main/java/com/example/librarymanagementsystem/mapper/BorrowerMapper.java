@@ -0,0 +1,22 @@
+// BorrowerMapper.java
+package com.example.librarymanagementsystem.mapper;
+
+import com.example.librarymanagementsystem.dto.BorrowerDTO;
+import com.example.librarymanagementsystem.entity.Borrower;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BorrowerMapper {
+
+    public BorrowerDTO toDto(Borrower borrower) {
+        return new BorrowerDTO(borrower.getId(), borrower.getEmail(), borrower.getName());
+    }
+
+    public Borrower toEntity(BorrowerDTO borrowerDTO) {
+        return Borrower.builder()
+                .id(borrowerDTO.getId())
+                .email(borrowerDTO.getEmail())
+                .name(borrowerDTO.getName())
+                .build();
+    }
+}
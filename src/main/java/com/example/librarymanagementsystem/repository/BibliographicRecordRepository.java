@@ -0,0 +1,10 @@
+// BibliographicRecordRepository.java
+package com.example.librarymanagementsystem.repository;
+
+import com.example.librarymanagementsystem.entity.BibliographicRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BibliographicRecordRepository extends JpaRepository<BibliographicRecord, String> {
+}
@@ -0,0 +1,18 @@
+// BookPageQueries.java
+package com.example.librarymanagementsystem.repository;
+
+import com.example.librarymanagementsystem.dto.BookWithBorrowerDTO;
+import com.example.librarymanagementsystem.entity.Book;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface BookPageQueries {
+    // Keyset page on the primary key: seeks past the cursor instead of using OFFSET, so every page costs the same.
+    // author, isbn and available are optional filters; null leaves that filter out
+    List<Book> findPage(Long after, String author, String isbn, Boolean available, Pageable pageable);
+
+    // The same page with each borrower's name and email taken from one outer join, so no borrower is loaded per row
+    List<BookWithBorrowerDTO> findPageWithBorrowers(Long after, String author, String isbn, Boolean available,
+                                                    Pageable pageable);
+}
@@ -0,0 +1,61 @@
+// BookPageQueriesImpl.java
+package com.example.librarymanagementsystem.repository;
+
+import com.example.librarymanagementsystem.dto.BookWithBorrowerDTO;
+import com.example.librarymanagementsystem.entity.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+class BookPageQueriesImpl implements BookPageQueries {
+
+    private final EntityManager entityManager;
+
+    BookPageQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Book> findPage(Long after, String author, String isbn, Boolean available, Pageable pageable) {
+        return page("SELECT b FROM Book b", Book.class, after, author, isbn, available, pageable);
+    }
+
+    @Override
+    public List<BookWithBorrowerDTO> findPageWithBorrowers(Long after, String author, String isbn, Boolean available,
+                                                           Pageable pageable) {
+        return page("SELECT new com.example.librarymanagementsystem.dto.BookWithBorrowerDTO("
+                        + "b.id, b.isbn, b.title, b.author, br.id, br.name, br.email)"
+                        + " FROM Book b LEFT JOIN b.borrower br",
+                BookWithBorrowerDTO.class, after, author, isbn, available, pageable);
+    }
+
+    // Only the filters that are present become predicates. A "(:author IS NULL OR b.author = :author)" form would
+    // be one prepared statement for every combination, and its plan could use none of the filter indexes
+    private <T> List<T> page(String select, Class<T> type, Long after, String author, String isbn, Boolean available,
+                             Pageable pageable) {
+        StringBuilder jpql = new StringBuilder(select).append(" WHERE b.id > :after");
+        if (author != null) {
+            jpql.append(" AND b.author = :author");
+        }
+        if (isbn != null) {
+            jpql.append(" AND b.isbn = :isbn");
+        }
+        if (available != null) {
+            jpql.append(available ? " AND b.borrower IS NULL" : " AND b.borrower IS NOT NULL");
+        }
+        TypedQuery<T> query = entityManager.createQuery(jpql.append(" ORDER BY b.id").toString(), type)
+                .setParameter("after", after);
+        if (author != null) {
+            query.setParameter("author", author);
+        }
+        if (isbn != null) {
+            query.setParameter("isbn", isbn);
+        }
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+}
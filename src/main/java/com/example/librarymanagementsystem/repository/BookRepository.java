@@ -2,13 +2,44 @@
 // BookRepository.java
 package com.example.librarymanagementsystem.repository;
 
+import com.example.librarymanagementsystem.dto.BookDTO;
 import com.example.librarymanagementsystem.entity.Book;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookPageQueries {
     List<Book> findByIsbn(String isbn);
+
+    @Query("SELECT b.id FROM Book b WHERE b.isbn = :isbn AND b.borrower IS NULL ORDER BY b.id")
+    List<Long> findFreeCopyIds(@Param("isbn") String isbn);
+
+    // Conditional checkout in one statement: matches only while the copy is on the shelf and the borrower exists,
+    // so of two concurrent checkouts exactly one sees an affected row
+    @Modifying
+    @Query("UPDATE Book b SET b.borrower.id = :borrowerId"
+            + " WHERE b.id = :bookId AND b.borrower IS NULL"
+            + " AND EXISTS (SELECT 1 FROM Borrower br WHERE br.id = :borrowerId)")
+    int checkOut(@Param("bookId") Long bookId, @Param("borrowerId") Long borrowerId);
+
+    // Conditional return in one statement: matches only while the copy is on loan to this borrower
+    @Modifying
+    @Query("UPDATE Book b SET b.borrower = NULL WHERE b.id = :bookId AND b.borrower.id = :borrowerId")
+    int checkIn(@Param("bookId") Long bookId, @Param("borrowerId") Long borrowerId);
+
+    // Copies on loan to a borrower, read through idx_book_borrower; b.borrower.id is the foreign key column itself,
+    // so the projection neither joins nor proxies the borrower
+    @Query("SELECT new com.example.librarymanagementsystem.dto.BookDTO(b.id, b.isbn, b.title, b.author, b.borrower.id)"
+            + " FROM Book b WHERE b.borrower.id = :borrowerId ORDER BY b.id")
+    List<BookDTO> findLoans(@Param("borrowerId") Long borrowerId);
+
+    @Query("SELECT new com.example.librarymanagementsystem.dto.BookDTO(b.id, b.isbn, b.title, b.author, b.borrower.id)"
+            + " FROM Book b WHERE b.borrower.id IN :borrowerIds ORDER BY b.id")
+    List<BookDTO> findLoans(@Param("borrowerIds") Collection<Long> borrowerIds);
 }
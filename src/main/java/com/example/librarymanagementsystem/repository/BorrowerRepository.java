@@ -2,10 +2,25 @@
 package com.example.librarymanagementsystem.repository;
 
 import com.example.librarymanagementsystem.entity.Borrower;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 @Repository
 public interface BorrowerRepository extends JpaRepository<Borrower, Long> {
     boolean existsByEmail(String email);
+
+    List<Borrower> findByIdGreaterThanOrderByIdAsc(Long after, Pageable pageable);
+
+    @Query("SELECT b.id FROM Borrower b WHERE b.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.email FROM Borrower b WHERE b.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
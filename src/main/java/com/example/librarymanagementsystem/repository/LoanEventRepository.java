@@ -0,0 +1,21 @@
+// LoanEventRepository.java
+package com.example.librarymanagementsystem.repository;
+
+import com.example.librarymanagementsystem.dto.LoanEventDTO;
+import com.example.librarymanagementsystem.entity.LoanEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LoanEventRepository extends JpaRepository<LoanEvent, Long> {
+
+    // Walks idx_loan_event_borrower in id order, which is also the order the events were written in
+    @Query("SELECT new com.example.librarymanagementsystem.dto.LoanEventDTO(e.id, e.bookId, e.borrowerId, e.type, e.occurredAt) " +
+            "FROM LoanEvent e WHERE e.borrowerId = :borrowerId AND e.id > :after ORDER BY e.id")
+    List<LoanEventDTO> findHistory(@Param("borrowerId") Long borrowerId, @Param("after") Long after, Pageable pageable);
+}
@@ -1,12 +1,26 @@
 // BookService.java
 package com.example.librarymanagementsystem.service;
 
+import com.example.librarymanagementsystem.dto.BookAvailabilityDTO;
 import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.BookSearchResultDTO;
+import com.example.librarymanagementsystem.dto.BookWithBorrowerDTO;
+import com.example.librarymanagementsystem.dto.BulkItemResultDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookService {
     BookDTO registerBook(BookDTO bookDTO);
-    List<BookDTO> getAllBooks();
+    List<BulkItemResultDTO> registerBooks(List<BookDTO> bookDTOs);
+    CursorPageDTO<BookDTO> getBooks(Long after, Integer limit, String author, String isbn, Boolean available);
+    CursorPageDTO<BookWithBorrowerDTO> getBooksWithBorrowers(Long after, Integer limit, String author, String isbn,
+                                                             Boolean available);
 
     BookDTO getBookById(Long bookId);
+
+    List<BookSearchResultDTO> searchBooks(String query, Integer limit);
+
+    BookAvailabilityDTO getAvailability(String isbn);
+    List<BookAvailabilityDTO> getAvailability(Collection<String> isbns);
 }
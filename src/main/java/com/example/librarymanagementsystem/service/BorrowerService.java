@@ -2,14 +2,27 @@
 // BorrowerService.java
 package com.example.librarymanagementsystem.service;
 
+import com.example.librarymanagementsystem.dto.BookDTO;
 import com.example.librarymanagementsystem.dto.BorrowerDTO;
+import com.example.librarymanagementsystem.dto.BulkItemResultDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import com.example.librarymanagementsystem.dto.LoanEventDTO;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface BorrowerService {
     BorrowerDTO registerBorrower(BorrowerDTO borrowerDTO);
+    List<BulkItemResultDTO> registerBorrowers(List<BorrowerDTO> borrowerDTOs);
     void borrowBook(Long borrowerId, Long bookId);
+    Long borrowAvailableCopy(Long borrowerId, String isbn);
     void returnBook(Long borrowerId, Long bookId);
-    List<BorrowerDTO> getAllBorrowers();
+    CursorPageDTO<BorrowerDTO> getBorrowers(Long after, Integer limit);
 
     BorrowerDTO getBorrowerById(Long borrowerId);
+
+    List<BookDTO> getBorrowedBooks(Long borrowerId);
+    Map<Long, List<BookDTO>> getBorrowedBooks(Collection<Long> borrowerIds);
+
+    CursorPageDTO<LoanEventDTO> getLoanHistory(Long borrowerId, Long after, Integer limit);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+// ExportService.java
+package com.example.librarymanagementsystem.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+    long exportBooks(OutputStream out) throws IOException;
+    long exportBorrowers(OutputStream out) throws IOException;
+}
@@ -0,0 +1,158 @@
+// AvailabilityCounters.java
+package com.example.librarymanagementsystem.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Number of copies and of copies on loan per ISBN, so availability is one map lookup however many copies an ISBN
+ * has. Built from {@code book} at startup and moved when a registration, checkout or return made through this
+ * instance commits. Both numbers of an ISBN share one {@link AtomicLong}, so a reader never sees one updated without
+ * the other, and writers only contend on the same ISBN.
+ * <p>
+ * Changes made through other instances, or to copies this instance has not indexed, are not seen here. {@link #check()}
+ * recounts {@code book} periodically and corrects the ISBNs that disagree.
+ */
+@Component
+public class AvailabilityCounters implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityCounters.class);
+
+    private static final String COUNT_SQL = "SELECT isbn, COUNT(*), COUNT(borrower_id) FROM book GROUP BY isbn";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AvailabilityIndex availabilityIndex;
+    private final Counter corrections;
+    // Copies in the high 32 bits, copies on loan in the low 32 bits
+    private final Map<String, AtomicLong> countsByIsbn = new ConcurrentHashMap<>();
+
+    public AvailabilityCounters(JdbcTemplate jdbcTemplate, AvailabilityIndex availabilityIndex, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.availabilityIndex = availabilityIndex;
+        this.corrections = Counter.builder("library.availability.corrections")
+                .description("ISBNs whose counters the consistency check found wrong and corrected")
+                .register(registry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        countsByIsbn.clear();
+        count().forEach((isbn, counts) -> countsByIsbn.put(isbn, new AtomicLong(counts)));
+        logger.info("Availability counters built for {} ISBNs", countsByIsbn.size());
+    }
+
+    /** Counts a newly registered copy once its insert has committed. */
+    public void copyAdded(String isbn, boolean onLoan) {
+        TransactionCallbacks.afterCommit(() -> add(isbn, 1, onLoan ? 1 : 0));
+    }
+
+    /** Counts a checkout once it has committed. */
+    public void copyBorrowed(Long bookId) {
+        String isbn = availabilityIndex.isbnOf(bookId);
+        if (isbn != null) {
+            TransactionCallbacks.afterCommit(() -> add(isbn, 0, 1));
+        }
+    }
+
+    /** Counts a return once it has committed. */
+    public void copyReturned(Long bookId) {
+        String isbn = availabilityIndex.isbnOf(bookId);
+        if (isbn != null) {
+            TransactionCallbacks.afterCommit(() -> add(isbn, 0, -1));
+        }
+    }
+
+    /** The counts of an ISBN, or {@code null} when no copy of it is known. */
+    public Counts get(String isbn) {
+        AtomicLong counts = countsByIsbn.get(isbn);
+        return counts == null ? null : Counts.of(counts.get());
+    }
+
+    /** Copies on loan across every ISBN, from memory; as current as the per-ISBN counts it adds up. */
+    public long onLoan() {
+        long onLoan = 0;
+        for (AtomicLong counts : countsByIsbn.values()) {
+            onLoan += Counts.of(counts.get()).onLoan();
+        }
+        return onLoan;
+    }
+
+    /**
+     * Recounts {@code book} and corrects every ISBN whose counters disagree, returning how many were corrected. An
+     * ISBN whose counters moved while the recount ran is left for the next check, because the recount may or may
+     * not include that change.
+     */
+    @Scheduled(fixedDelayString = "${library.availability.check-interval:PT5M}",
+            initialDelayString = "${library.availability.check-interval:PT5M}")
+    public int check() {
+        Map<String, Long> before = new HashMap<>();
+        countsByIsbn.forEach((isbn, counts) -> before.put(isbn, counts.get()));
+        Map<String, Long> actual = count();
+
+        Set<String> isbns = new HashSet<>(before.keySet());
+        isbns.addAll(actual.keySet());
+        int corrected = 0;
+        for (String isbn : isbns) {
+            long expected = actual.getOrDefault(isbn, 0L);
+            Long seen = before.get(isbn);
+            if (seen == null) {
+                // Registered through another instance; skipped if this instance has counted it since the snapshot
+                if (countsByIsbn.putIfAbsent(isbn, new AtomicLong(expected)) == null) {
+                    corrected++;
+                }
+            } else if (seen != expected && countsByIsbn.get(isbn).compareAndSet(seen, expected)) {
+                corrected++;
+            }
+        }
+        if (corrected > 0) {
+            corrections.increment(corrected);
+            logger.warn("Corrected availability counters of {} ISBNs", corrected);
+        }
+        return corrected;
+    }
+
+    private Map<String, Long> count() {
+        Map<String, Long> counts = new HashMap<>();
+        RowCallbackHandler countRow = rs -> counts.put(rs.getString(1), pack(rs.getInt(2), rs.getInt(3)));
+        jdbcTemplate.query(COUNT_SQL, countRow);
+        return counts;
+    }
+
+    private void add(String isbn, int copies, int onLoan) {
+        countsByIsbn.computeIfAbsent(isbn, key -> new AtomicLong())
+                .updateAndGet(packed -> {
+                    Counts counts = Counts.of(packed);
+                    // Never below zero, even for a return the startup count already reflected
+                    return pack(counts.copies() + copies, Math.max(0, counts.onLoan() + onLoan));
+                });
+    }
+
+    private static long pack(int copies, int onLoan) {
+        return ((long) copies << 32) | (onLoan & 0xFFFFFFFFL);
+    }
+
+    public record Counts(int copies, int onLoan) {
+
+        static Counts of(long packed) {
+            return new Counts((int) (packed >>> 32), (int) packed);
+        }
+
+        public int available() {
+            return Math.max(0, copies - onLoan);
+        }
+    }
+}
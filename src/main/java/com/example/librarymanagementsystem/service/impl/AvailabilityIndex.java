@@ -0,0 +1,127 @@
+// AvailabilityIndex.java
+package com.example.librarymanagementsystem.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of free copy ids per ISBN, so "borrow any copy of this ISBN" picks a candidate without querying
+ * the catalog. The index is only a hint: the conditional checkout in the database decides who gets a copy.
+ * A candidate that turns out to be on loan is dropped, and an ISBN whose set runs empty is reloaded from the
+ * database once before reporting that no copy is free. Changes made by other instances reach this index the same
+ * way, on conflict.
+ */
+@Component
+public class AvailabilityIndex implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Set<Long>> freeCopiesByIsbn = new ConcurrentHashMap<>();
+    private final Map<Long, String> isbnByCopy = new ConcurrentHashMap<>();
+
+    public AvailabilityIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        freeCopiesByIsbn.clear();
+        isbnByCopy.clear();
+        RowCallbackHandler indexRow = rs -> index(rs.getLong(1), rs.getString(2), rs.getObject(3) == null);
+        jdbcTemplate.query("SELECT id, isbn, borrower_id FROM book", indexRow);
+        logger.info("Availability index built for {} copies of {} ISBNs", isbnByCopy.size(), freeCopiesByIsbn.size());
+    }
+
+    /**
+     * Removes and returns some free copy of the ISBN, or {@code null} when the index knows of none. Each copy is
+     * handed to at most one caller.
+     */
+    public Long claim(String isbn) {
+        Set<Long> freeCopies = freeCopiesByIsbn.get(isbn);
+        if (freeCopies == null) {
+            return null;
+        }
+        Iterator<Long> candidates = freeCopies.iterator();
+        while (candidates.hasNext()) {
+            Long bookId = candidates.next();
+            if (freeCopies.remove(bookId)) {
+                return bookId;
+            }
+        }
+        return null;
+    }
+
+    /** Puts a claimed copy straight back, for a checkout that was refused for reasons other than the copy. */
+    public void release(Long bookId) {
+        String isbn = isbnByCopy.get(bookId);
+        if (isbn != null) {
+            freeCopies(isbn).add(bookId);
+        }
+    }
+
+    /** Records a successful checkout of a copy claimed from this index; undone if the transaction rolls back. */
+    public void confirmClaim(Long bookId) {
+        TransactionCallbacks.onRollback(() -> release(bookId));
+    }
+
+    /** Records a successful checkout of a specific copy; undone if the transaction rolls back. */
+    public void markBorrowed(Long bookId) {
+        String isbn = isbnByCopy.get(bookId);
+        if (isbn != null && freeCopiesByIsbn.getOrDefault(isbn, Set.of()).remove(bookId)) {
+            TransactionCallbacks.onRollback(() -> release(bookId));
+        }
+    }
+
+    /** Makes a returned copy available once the return has committed. */
+    public void markReturned(Long bookId) {
+        TransactionCallbacks.afterCommit(() -> release(bookId));
+    }
+
+    /** Adds a newly registered copy once its insert has committed. */
+    public void addCopy(Long bookId, String isbn, boolean free) {
+        TransactionCallbacks.afterCommit(() -> index(bookId, isbn, free));
+    }
+
+    /** Replaces what the index believes about an ISBN with the free copies found in the database. */
+    public void reconcile(String isbn, Collection<Long> freeCopyIds) {
+        Set<Long> freeCopies = ConcurrentHashMap.newKeySet();
+        freeCopies.addAll(freeCopyIds);
+        freeCopyIds.forEach(bookId -> isbnByCopy.put(bookId, isbn));
+        freeCopiesByIsbn.put(isbn, freeCopies);
+    }
+
+    /** The ISBN of any copy this index has seen, free or not, or {@code null} for an unknown copy. */
+    public String isbnOf(Long bookId) {
+        return isbnByCopy.get(bookId);
+    }
+
+    public int freeCopyCount(String isbn) {
+        return freeCopiesByIsbn.getOrDefault(isbn, Set.of()).size();
+    }
+
+    private void index(Long bookId, String isbn, boolean free) {
+        isbnByCopy.put(bookId, isbn);
+        if (free) {
+            freeCopies(isbn).add(bookId);
+        }
+    }
+
+    private Set<Long> freeCopies(String isbn) {
+        return freeCopiesByIsbn.computeIfAbsent(isbn, key -> ConcurrentHashMap.newKeySet());
+    }
+}
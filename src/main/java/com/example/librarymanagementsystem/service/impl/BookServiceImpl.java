@@ -1,70 +1,301 @@
 // BookServiceImpl.java
 package com.example.librarymanagementsystem.service.impl;
 
+import com.example.librarymanagementsystem.config.CacheConfig;
+import com.example.librarymanagementsystem.dto.BookAvailabilityDTO;
 import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.BookSearchResultDTO;
+import com.example.librarymanagementsystem.dto.BookWithBorrowerDTO;
+import com.example.librarymanagementsystem.dto.BulkItemResultDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import com.example.librarymanagementsystem.entity.BibliographicRecord;
 import com.example.librarymanagementsystem.entity.Book;
 import com.example.librarymanagementsystem.entity.Borrower;
 import com.example.librarymanagementsystem.exception.ResourceNotFoundException;
+import com.example.librarymanagementsystem.mapper.BookMapper;
+import com.example.librarymanagementsystem.repository.BibliographicRecordRepository;
 import com.example.librarymanagementsystem.repository.BookRepository;
 import com.example.librarymanagementsystem.repository.BorrowerRepository;
 import com.example.librarymanagementsystem.service.BookService;
-import org.modelmapper.ModelMapper;
+import com.example.librarymanagementsystem.util.CursorPagination;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BookServiceImpl implements BookService {
 
+    private static final String ISBN_CONFLICT_MESSAGE = "Books with the same ISBN must have the same title and author";
+    private static final int SEARCH_DEFAULT_LIMIT = 20;
+    private static final int SEARCH_MAX_LIMIT = 100;
+
     private final BookRepository bookRepository;
-    private final ModelMapper modelMapper;
+    private final BookMapper bookMapper;
     private final BorrowerRepository borrowerRepository;
+    private final BibliographicRecordRepository bibliographicRecordRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final AvailabilityCounters availabilityCounters;
+    private final ChangeFeed changeFeed;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public BookServiceImpl(BookRepository bookRepository, ModelMapper modelMapper, BorrowerRepository borrowerRepository) {
+    public BookServiceImpl(BookRepository bookRepository, BookMapper bookMapper, BorrowerRepository borrowerRepository,
+                           BibliographicRecordRepository bibliographicRecordRepository, AvailabilityIndex availabilityIndex,
+                           CatalogSearchIndex catalogSearchIndex, AvailabilityCounters availabilityCounters,
+                           ChangeFeed changeFeed, PlatformTransactionManager transactionManager) {
         this.bookRepository = bookRepository;
-        this.modelMapper = modelMapper;
+        this.bookMapper = bookMapper;
         this.borrowerRepository = borrowerRepository;
+        this.bibliographicRecordRepository = bibliographicRecordRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.catalogSearchIndex = catalogSearchIndex;
+        this.availabilityCounters = availabilityCounters;
+        this.changeFeed = changeFeed;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    // Not @Transactional: a new ISBN's record is committed before the copy's transaction opens, so a registration
+    // never holds one pooled connection while waiting for another
+    @CachePut(cacheNames = CacheConfig.BOOKS, key = "#result.id")
+    @Timed(value = "library.operations", histogram = true)
     public BookDTO registerBook(BookDTO bookDTO) {
-        validateBook(bookDTO);
-
-        Book book = modelMapper.map(bookDTO, Book.class);
-        if (bookDTO.getBorrowerId() != null && bookDTO.getBorrowerId() != 0) {
+        Book book = bookMapper.toEntity(bookDTO);
+        if (hasBorrower(bookDTO)) {
             Borrower borrower = borrowerRepository.findById(bookDTO.getBorrowerId())
                     .orElseThrow(() -> new ResourceNotFoundException("Borrower not found"));
             book.setBorrower(borrower);
         } else {
             book.setBorrower(null);
         }
+        // After the borrower check, so a rejected copy does not leave a new ISBN registered
+        validateBook(bookDTO);
 
-        Book savedBook = bookRepository.save(book);
-        return modelMapper.map(savedBook, BookDTO.class);
+        Book savedBook = transactionTemplate.execute(status -> addCopy(bookRepository.save(book)));
+        return bookMapper.toDto(savedBook);
     }
 
+    // Called inside the copy's transaction; the indexes and the change feed see the copy once that commits
+    private Book addCopy(Book savedBook) {
+        availabilityIndex.addCopy(savedBook.getId(), savedBook.getIsbn(), savedBook.getBorrower() == null);
+        catalogSearchIndex.addCopy(savedBook.getIsbn(), savedBook.getTitle(), savedBook.getAuthor());
+        availabilityCounters.copyAdded(savedBook.getIsbn(), savedBook.getBorrower() != null);
+        changeFeed.publish(ChangeFeed.BOOK_REGISTERED, bookMapper.toDto(savedBook));
+        return savedBook;
+    }
+
+    // One primary-key lookup in the ISBN registry; the first copy of an ISBN registers its title and author
     private void validateBook(BookDTO bookDTO) {
-        List<Book> existingBooks = bookRepository.findByIsbn(bookDTO.getIsbn());
-        for (Book existingBook : existingBooks) {
-            if (!existingBook.getTitle().equals(bookDTO.getTitle()) ||
-                    !existingBook.getAuthor().equals(bookDTO.getAuthor())) {
-                throw new IllegalArgumentException("Books with the same ISBN must have the same title and author");
+        BibliographicRecord record = bibliographicRecordRepository.findById(bookDTO.getIsbn())
+                .orElseGet(() -> registerRecord(bookDTO));
+        if (!record.matches(bookDTO.getTitle(), bookDTO.getAuthor())) {
+            throw new IllegalArgumentException(ISBN_CONFLICT_MESSAGE);
+        }
+    }
+
+    /**
+     * Registers a new ISBN in its own transaction. When a concurrent first copy of the same ISBN inserted it first,
+     * the primary key rejects this insert and the winner's record is read back, in a new transaction so that it sees
+     * the committed row, and validated against instead. The record stays if the copy itself then fails to save; it
+     * only fixes the title and author that the ISBN's first copy would have fixed anyway.
+     */
+    private BibliographicRecord registerRecord(BookDTO bookDTO) {
+        BibliographicRecord record = new BibliographicRecord(bookDTO.getIsbn(), bookDTO.getTitle(), bookDTO.getAuthor());
+        try {
+            transactionTemplate.executeWithoutResult(status -> bibliographicRecordRepository.saveAndFlush(record));
+            return record;
+        } catch (DataIntegrityViolationException e) {
+            return transactionTemplate.execute(status -> bibliographicRecordRepository.findById(bookDTO.getIsbn()))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    // Not @Transactional: the chunk is saved in its own transaction, so a failed insert can be retried item by item
+    @Override
+    @Timed(value = "library.operations", histogram = true)
+    public List<BulkItemResultDTO> registerBooks(List<BookDTO> bookDTOs) {
+        Map<String, BibliographicRecord> records = loadRecords(bookDTOs);
+        List<BibliographicRecord> newRecords = new ArrayList<>();
+        Set<Long> existingBorrowerIds = loadExistingBorrowerIds(bookDTOs);
+
+        BulkItemResultDTO[] results = new BulkItemResultDTO[bookDTOs.size()];
+        List<BookDTO> accepted = new ArrayList<>(bookDTOs.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(bookDTOs.size());
+        for (int i = 0; i < bookDTOs.size(); i++) {
+            BookDTO bookDTO = bookDTOs.get(i);
+            String error = validateBulkItem(bookDTO, records, existingBorrowerIds);
+            if (error != null) {
+                results[i] = BulkItemResultDTO.rejected(i, error);
+                continue;
             }
+            // The first accepted copy of a new ISBN registers its title and author for the rest of the batch
+            if (!records.containsKey(bookDTO.getIsbn())) {
+                BibliographicRecord record =
+                        new BibliographicRecord(bookDTO.getIsbn(), bookDTO.getTitle(), bookDTO.getAuthor());
+                records.put(record.getIsbn(), record);
+                newRecords.add(record);
+            }
+            accepted.add(bookDTO);
+            acceptedIndexes.add(i);
+        }
+
+        try {
+            List<Book> savedBooks = transactionTemplate.execute(status -> {
+                bibliographicRecordRepository.saveAllAndFlush(newRecords);
+                List<Book> saved = bookRepository.saveAll(accepted.stream().map(this::toNewBook).toList());
+                saved.forEach(this::addCopy);
+                return saved;
+            });
+            for (int j = 0; j < savedBooks.size(); j++) {
+                int index = acceptedIndexes.get(j);
+                results[index] = BulkItemResultDTO.created(index, savedBooks.get(j).getId());
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Another request registered one of the new ISBNs after the lookup; check each copy against its record
+            for (int j = 0; j < accepted.size(); j++) {
+                int index = acceptedIndexes.get(j);
+                results[index] = registerOne(index, accepted.get(j));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private BulkItemResultDTO registerOne(int index, BookDTO bookDTO) {
+        try {
+            validateBook(bookDTO);
+        } catch (IllegalArgumentException e) {
+            return BulkItemResultDTO.rejected(index, ISBN_CONFLICT_MESSAGE);
+        }
+        Book saved = transactionTemplate.execute(status -> addCopy(bookRepository.save(toNewBook(bookDTO))));
+        return BulkItemResultDTO.created(index, saved.getId());
+    }
+
+    private Book toNewBook(BookDTO bookDTO) {
+        Book book = bookMapper.toEntity(bookDTO);
+        book.setId(null);
+        if (hasBorrower(bookDTO)) {
+            book.setBorrower(borrowerRepository.getReferenceById(bookDTO.getBorrowerId()));
+        }
+        return book;
+    }
+
+    private Map<String, BibliographicRecord> loadRecords(List<BookDTO> bookDTOs) {
+        Set<String> isbns = bookDTOs.stream()
+                .filter(Objects::nonNull)
+                .map(BookDTO::getIsbn)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, BibliographicRecord> records = new HashMap<>();
+        if (!isbns.isEmpty()) {
+            bibliographicRecordRepository.findAllById(isbns).forEach(record -> records.put(record.getIsbn(), record));
         }
+        return records;
+    }
+
+    private Set<Long> loadExistingBorrowerIds(List<BookDTO> bookDTOs) {
+        Set<Long> borrowerIds = bookDTOs.stream()
+                .filter(Objects::nonNull)
+                .filter(this::hasBorrower)
+                .map(BookDTO::getBorrowerId)
+                .collect(Collectors.toSet());
+        return borrowerIds.isEmpty() ? Set.of() : borrowerRepository.findExistingIds(borrowerIds);
+    }
+
+    private String validateBulkItem(BookDTO bookDTO, Map<String, BibliographicRecord> records,
+                                    Set<Long> existingBorrowerIds) {
+        if (bookDTO == null || bookDTO.getIsbn() == null || bookDTO.getTitle() == null || bookDTO.getAuthor() == null) {
+            return "ISBN, title and author are required";
+        }
+        BibliographicRecord record = records.get(bookDTO.getIsbn());
+        if (record != null && !record.matches(bookDTO.getTitle(), bookDTO.getAuthor())) {
+            return ISBN_CONFLICT_MESSAGE;
+        }
+        if (hasBorrower(bookDTO) && !existingBorrowerIds.contains(bookDTO.getBorrowerId())) {
+            return "Borrower not found with id: " + bookDTO.getBorrowerId();
+        }
+        return null;
+    }
+
+    private boolean hasBorrower(BookDTO bookDTO) {
+        return bookDTO.getBorrowerId() != null && bookDTO.getBorrowerId() != 0;
     }
 
     @Override
-    public List<BookDTO> getAllBooks() {
-        return bookRepository.findAll().stream()
-                .map(book -> modelMapper.map(book, BookDTO.class))
-                .toList();
+    public CursorPageDTO<BookDTO> getBooks(Long after, Integer limit, String author, String isbn, Boolean available) {
+        int pageSize = CursorPagination.clampLimit(limit);
+        List<Book> rows = bookRepository.findPage(CursorPagination.startAfter(after), author, isbn, available,
+                CursorPagination.lookahead(pageSize));
+        return CursorPagination.toPage(rows, pageSize, Book::getId, bookMapper::toDto);
     }
 
     @Override
+    public CursorPageDTO<BookWithBorrowerDTO> getBooksWithBorrowers(Long after, Integer limit, String author, String isbn,
+                                                                    Boolean available) {
+        int pageSize = CursorPagination.clampLimit(limit);
+        List<BookWithBorrowerDTO> rows = bookRepository.findPageWithBorrowers(CursorPagination.startAfter(after),
+                author, isbn, available, CursorPagination.lookahead(pageSize));
+        return CursorPagination.toPage(rows, pageSize, BookDTO::getId, Function.identity());
+    }
+
+    @Override
+    @Cacheable(CacheConfig.BOOKS)
     public BookDTO getBookById(Long bookId) {
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
-        return modelMapper.map(book, BookDTO.class);
+        return bookMapper.toDto(book);
+    }
+
+    @Override
+    @Timed(value = "library.operations", histogram = true)
+    public List<BookSearchResultDTO> searchBooks(String query, Integer limit) {
+        int size = limit == null || limit <= 0 ? SEARCH_DEFAULT_LIMIT : Math.min(limit, SEARCH_MAX_LIMIT);
+        return catalogSearchIndex.search(query, size).stream()
+                .map(entry -> new BookSearchResultDTO(entry.getIsbn(), entry.getTitle(), entry.getAuthor(),
+                        entry.getCopies(), availableCopies(entry.getIsbn())))
+                .toList();
+    }
+
+    @Override
+    public BookAvailabilityDTO getAvailability(String isbn) {
+        AvailabilityCounters.Counts counts = availabilityCounters.get(isbn);
+        if (counts == null) {
+            throw new ResourceNotFoundException("No copies found with ISBN: " + isbn);
+        }
+        return new BookAvailabilityDTO(isbn, counts.copies(), counts.available());
+    }
+
+    @Override
+    public List<BookAvailabilityDTO> getAvailability(Collection<String> isbns) {
+        return isbns.stream()
+                .distinct()
+                .map(isbn -> {
+                    AvailabilityCounters.Counts counts = availabilityCounters.get(isbn);
+                    return counts == null
+                            ? new BookAvailabilityDTO(isbn, 0, 0)
+                            : new BookAvailabilityDTO(isbn, counts.copies(), counts.available());
+                })
+                .toList();
+    }
+
+    private int availableCopies(String isbn) {
+        AvailabilityCounters.Counts counts = availabilityCounters.get(isbn);
+        return counts == null ? 0 : counts.available();
     }
-}
\ No newline at end of file
+}
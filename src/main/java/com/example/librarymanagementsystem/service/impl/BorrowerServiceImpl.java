@@ -1,103 +1,307 @@
 // BorrowerServiceImpl.java
 package com.example.librarymanagementsystem.service.impl;
 
+import com.example.librarymanagementsystem.config.CacheConfig;
+import com.example.librarymanagementsystem.dto.BookDTO;
 import com.example.librarymanagementsystem.dto.BorrowerDTO;
-import com.example.librarymanagementsystem.entity.Book;
+import com.example.librarymanagementsystem.dto.BulkItemResultDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import com.example.librarymanagementsystem.dto.LoanChangeDTO;
+import com.example.librarymanagementsystem.dto.LoanEventDTO;
 import com.example.librarymanagementsystem.entity.Borrower;
+import com.example.librarymanagementsystem.entity.LoanEventType;
 import com.example.librarymanagementsystem.exception.BookAlreadyBorrowedException;
 import com.example.librarymanagementsystem.exception.BookNotBorrowedException;
 import com.example.librarymanagementsystem.exception.DuplicateBorrowerEmailException;
+import com.example.librarymanagementsystem.exception.NoAvailableCopyException;
 import com.example.librarymanagementsystem.exception.ResourceNotFoundException;
+import com.example.librarymanagementsystem.mapper.BorrowerMapper;
 import com.example.librarymanagementsystem.repository.BookRepository;
 import com.example.librarymanagementsystem.repository.BorrowerRepository;
+import com.example.librarymanagementsystem.repository.LoanEventRepository;
 import com.example.librarymanagementsystem.service.BorrowerService;
-import org.modelmapper.ModelMapper;
+import com.example.librarymanagementsystem.util.CursorPagination;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 public class BorrowerServiceImpl implements BorrowerService {
 
+    private static final String DUPLICATE_EMAIL_MESSAGE = "A borrower with this email already exists.";
+    // Keeps each IN list (email existence, loans of many borrowers) to a bounded number of bind parameters
+    private static final int IN_LIST_CHUNK_SIZE = 1000;
+
     private final BorrowerRepository borrowerRepository;
     private final BookRepository bookRepository;
-    private final ModelMapper modelMapper;
+    private final BorrowerMapper borrowerMapper;
+    private final AvailabilityIndex availabilityIndex;
+    private final AvailabilityCounters availabilityCounters;
+    private final LoanEventRepository loanEventRepository;
+    private final LoanEventLog loanEventLog;
+    private final ChangeFeed changeFeed;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public BorrowerServiceImpl(BorrowerRepository borrowerRepository, BookRepository bookRepository, ModelMapper modelMapper) {
+    public BorrowerServiceImpl(BorrowerRepository borrowerRepository, BookRepository bookRepository, BorrowerMapper borrowerMapper,
+                               AvailabilityIndex availabilityIndex, AvailabilityCounters availabilityCounters,
+                               LoanEventRepository loanEventRepository,
+                               LoanEventLog loanEventLog, ChangeFeed changeFeed,
+                               PlatformTransactionManager transactionManager) {
         this.borrowerRepository = borrowerRepository;
         this.bookRepository = bookRepository;
-        this.modelMapper = modelMapper;
+        this.borrowerMapper = borrowerMapper;
+        this.availabilityIndex = availabilityIndex;
+        this.availabilityCounters = availabilityCounters;
+        this.loanEventRepository = loanEventRepository;
+        this.loanEventLog = loanEventLog;
+        this.changeFeed = changeFeed;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
+    @CachePut(cacheNames = CacheConfig.BORROWERS, key = "#result.id")
+    @Timed(value = "library.operations", histogram = true)
     public BorrowerDTO registerBorrower(BorrowerDTO borrowerDTO) {
         // Check if a borrower with the same email already exists
         if (borrowerRepository.existsByEmail(borrowerDTO.getEmail())) {
-            throw new DuplicateBorrowerEmailException("A borrower with this email already exists.");
+            throw new DuplicateBorrowerEmailException(DUPLICATE_EMAIL_MESSAGE);
         }
 
-        Borrower borrower = modelMapper.map(borrowerDTO, Borrower.class);
+        Borrower borrower = borrowerMapper.toEntity(borrowerDTO);
         Borrower savedBorrower = borrowerRepository.save(borrower);
-        return modelMapper.map(savedBorrower, BorrowerDTO.class);
+        BorrowerDTO savedBorrowerDTO = borrowerMapper.toDto(savedBorrower);
+        changeFeed.publish(ChangeFeed.BORROWER_REGISTERED, savedBorrowerDTO);
+        return savedBorrowerDTO;
     }
+
+    // Not @Transactional: the chunk is saved in its own transaction, so a failed insert can be retried item by item
     @Override
-    public void borrowBook(Long borrowerId, Long bookId) {
-        // Retrieve borrower from repository or throw exception if not found
-        Borrower borrower = borrowerRepository.findById(borrowerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Borrower not found with id: " + borrowerId));
+    @Timed(value = "library.operations", histogram = true)
+    public List<BulkItemResultDTO> registerBorrowers(List<BorrowerDTO> borrowerDTOs) {
+        Set<String> existingEmails = loadExistingEmails(borrowerDTOs);
+        Set<String> seenEmails = new HashSet<>();
 
-        // Retrieve book from repository or throw exception if not found
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
+        BulkItemResultDTO[] results = new BulkItemResultDTO[borrowerDTOs.size()];
+        List<Borrower> accepted = new ArrayList<>(borrowerDTOs.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(borrowerDTOs.size());
+        for (int i = 0; i < borrowerDTOs.size(); i++) {
+            BorrowerDTO borrowerDTO = borrowerDTOs.get(i);
+            if (borrowerDTO == null || borrowerDTO.getEmail() == null || borrowerDTO.getName() == null) {
+                results[i] = BulkItemResultDTO.rejected(i, "Email and name are required");
+                continue;
+            }
+            String email = normalizeEmail(borrowerDTO.getEmail());
+            if (existingEmails.contains(email)) {
+                results[i] = BulkItemResultDTO.rejected(i, DUPLICATE_EMAIL_MESSAGE);
+                continue;
+            }
+            // Only the first entry with a given email is imported; later ones in the same batch are rejected
+            if (!seenEmails.add(email)) {
+                results[i] = BulkItemResultDTO.rejected(i, "Email appears earlier in this batch");
+                continue;
+            }
 
-        // Check if the book is already borrowed (example logic)
-        if (book.getBorrower() != null) {
-            throw new BookAlreadyBorrowedException("Book is already borrowed");
+            Borrower borrower = borrowerMapper.toEntity(borrowerDTO);
+            borrower.setId(null);
+            accepted.add(borrower);
+            acceptedIndexes.add(i);
         }
 
-        // Logic to mark the book as borrowed by the borrower
-        book.setBorrower(borrower);
+        try {
+            List<Borrower> savedBorrowers = transactionTemplate.execute(status -> {
+                List<Borrower> saved = borrowerRepository.saveAllAndFlush(accepted);
+                saved.forEach(borrower ->
+                        changeFeed.publish(ChangeFeed.BORROWER_REGISTERED, borrowerMapper.toDto(borrower)));
+                return saved;
+            });
+            for (int j = 0; j < savedBorrowers.size(); j++) {
+                int index = acceptedIndexes.get(j);
+                results[index] = BulkItemResultDTO.created(index, savedBorrowers.get(j).getId());
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Another request registered one of these emails after the lookup; only that entry should fail
+            for (int j = 0; j < accepted.size(); j++) {
+                int index = acceptedIndexes.get(j);
+                results[index] = registerOne(index, accepted.get(j));
+            }
+        }
+        return Arrays.asList(results);
+    }
 
-        // Save the updated book entity
-        bookRepository.save(book);
+    private BulkItemResultDTO registerOne(int index, Borrower borrower) {
+        // The id the failed batch assigned was rolled back with it
+        borrower.setId(null);
+        try {
+            Borrower saved = transactionTemplate.execute(status -> {
+                Borrower savedBorrower = borrowerRepository.saveAndFlush(borrower);
+                changeFeed.publish(ChangeFeed.BORROWER_REGISTERED, borrowerMapper.toDto(savedBorrower));
+                return savedBorrower;
+            });
+            return BulkItemResultDTO.created(index, saved.getId());
+        } catch (DataIntegrityViolationException e) {
+            return BulkItemResultDTO.rejected(index, DUPLICATE_EMAIL_MESSAGE);
+        }
     }
 
-    @Override
-    public void returnBook(Long borrowerId, Long bookId) {
-        // Retrieve borrower from repository or throw exception if not found
-        Borrower borrower = borrowerRepository.findById(borrowerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Borrower not found with id: " + borrowerId));
+    // The unique key on borrower.email ignores case under MySQL's default collation, so the checks do too
+    private static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
 
-        // Retrieve book from repository or throw exception if not found
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
+    private Set<String> loadExistingEmails(List<BorrowerDTO> borrowerDTOs) {
+        List<String> emails = borrowerDTOs.stream()
+                .filter(borrowerDTO -> borrowerDTO != null && borrowerDTO.getEmail() != null)
+                .map(BorrowerDTO::getEmail)
+                .distinct()
+                .toList();
+        Set<String> existingEmails = new HashSet<>();
+        for (int from = 0; from < emails.size(); from += IN_LIST_CHUNK_SIZE) {
+            List<String> chunk = emails.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, emails.size()));
+            // The database decides which stored spellings match; they are compared case-insensitively from here on
+            borrowerRepository.findExistingEmails(chunk).forEach(email -> existingEmails.add(normalizeEmail(email)));
+        }
+        return existingEmails;
+    }
 
-        // Additional logic to ensure the book was borrowed by the borrower
-        if ( book.getBorrower() ==null || !book.getBorrower().equals(borrower)) {
-            throw new BookNotBorrowedException("Book was not borrowed by this borrower");
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#bookId")
+    @Timed(value = "library.operations", histogram = true)
+    public void borrowBook(Long borrowerId, Long bookId) {
+        // One round trip when the checkout succeeds; the lookups below only run to explain a refusal
+        if (bookRepository.checkOut(bookId, borrowerId) == 1) {
+            availabilityIndex.markBorrowed(bookId);
+            availabilityCounters.copyBorrowed(bookId);
+            loanEventLog.record(LoanEventType.BORROW, bookId, borrowerId);
+            changeFeed.publish(ChangeFeed.BORROWED, new LoanChangeDTO(bookId, borrowerId));
+            return;
         }
+        requireBorrowerAndBook(borrowerId, bookId);
+        throw new BookAlreadyBorrowedException("Book is already borrowed");
+    }
 
-        // Logic to mark the book as returned
-        book.setBorrower(null);
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#result")
+    @Timed(value = "library.operations", histogram = true)
+    public Long borrowAvailableCopy(Long borrowerId, String isbn) {
+        boolean reconciled = false;
+        while (true) {
+            Long bookId = availabilityIndex.claim(isbn);
+            if (bookId == null) {
+                if (reconciled) {
+                    throw new NoAvailableCopyException("No available copy of ISBN: " + isbn);
+                }
+                // The index may have missed copies returned or registered elsewhere; reload this ISBN once
+                availabilityIndex.reconcile(isbn, bookRepository.findFreeCopyIds(isbn));
+                reconciled = true;
+                continue;
+            }
+            if (bookRepository.checkOut(bookId, borrowerId) == 1) {
+                availabilityIndex.confirmClaim(bookId);
+                availabilityCounters.copyBorrowed(bookId);
+                loanEventLog.record(LoanEventType.BORROW, bookId, borrowerId);
+                changeFeed.publish(ChangeFeed.BORROWED, new LoanChangeDTO(bookId, borrowerId));
+                return bookId;
+            }
+            // Either the borrower is unknown, or the copy was lent out behind the index's back and stays dropped
+            if (!borrowerRepository.existsById(borrowerId)) {
+                availabilityIndex.release(bookId);
+                throw new ResourceNotFoundException("Borrower not found with id: " + borrowerId);
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#bookId")
+    @Timed(value = "library.operations", histogram = true)
+    public void returnBook(Long borrowerId, Long bookId) {
+        if (bookRepository.checkIn(bookId, borrowerId) == 1) {
+            availabilityIndex.markReturned(bookId);
+            availabilityCounters.copyReturned(bookId);
+            loanEventLog.record(LoanEventType.RETURN, bookId, borrowerId);
+            changeFeed.publish(ChangeFeed.RETURNED, new LoanChangeDTO(bookId, borrowerId));
+            return;
+        }
+        requireBorrowerAndBook(borrowerId, bookId);
+        throw new BookNotBorrowedException("Book was not borrowed by this borrower");
+    }
 
-        // Save the updated book entity
-        bookRepository.save(book);
+    private void requireBorrowerAndBook(Long borrowerId, Long bookId) {
+        if (!borrowerRepository.existsById(borrowerId)) {
+            throw new ResourceNotFoundException("Borrower not found with id: " + borrowerId);
+        }
+        if (!bookRepository.existsById(bookId)) {
+            throw new ResourceNotFoundException("Book not found with id: " + bookId);
+        }
     }
 
     @Override
-    public List<BorrowerDTO> getAllBorrowers() {
-        return borrowerRepository.findAll().stream()
-                .map(borrower -> modelMapper.map(borrower, BorrowerDTO.class))
-                .toList();
+    public CursorPageDTO<BorrowerDTO> getBorrowers(Long after, Integer limit) {
+        int pageSize = CursorPagination.clampLimit(limit);
+        List<Borrower> rows = borrowerRepository.findByIdGreaterThanOrderByIdAsc(CursorPagination.startAfter(after),
+                CursorPagination.lookahead(pageSize));
+        return CursorPagination.toPage(rows, pageSize, Borrower::getId, borrowerMapper::toDto);
     }
 
     @Override
+    @Cacheable(CacheConfig.BORROWERS)
     public BorrowerDTO getBorrowerById(Long borrowerId) {
         Borrower borrower = borrowerRepository.findById(borrowerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Borrower not found with id: " + borrowerId));
-        return modelMapper.map(borrower, BorrowerDTO.class);
+        return borrowerMapper.toDto(borrower);
+    }
+
+    @Override
+    public List<BookDTO> getBorrowedBooks(Long borrowerId) {
+        List<BookDTO> loans = bookRepository.findLoans(borrowerId);
+        // Only an empty result needs telling apart from an unknown borrower
+        if (loans.isEmpty() && !borrowerRepository.existsById(borrowerId)) {
+            throw new ResourceNotFoundException("Borrower not found with id: " + borrowerId);
+        }
+        return loans;
+    }
+
+    @Override
+    public Map<Long, List<BookDTO>> getBorrowedBooks(Collection<Long> borrowerIds) {
+        Map<Long, List<BookDTO>> loansByBorrower = new LinkedHashMap<>();
+        borrowerIds.forEach(borrowerId -> loansByBorrower.put(borrowerId, new ArrayList<>()));
+        List<Long> ids = List.copyOf(loansByBorrower.keySet());
+        for (int from = 0; from < ids.size(); from += IN_LIST_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, ids.size()));
+            bookRepository.findLoans(chunk).forEach(loan -> loansByBorrower.get(loan.getBorrowerId()).add(loan));
+        }
+        return loansByBorrower;
     }
 
-}
\ No newline at end of file
+    @Override
+    public CursorPageDTO<LoanEventDTO> getLoanHistory(Long borrowerId, Long after, Integer limit) {
+        int pageSize = CursorPagination.clampLimit(limit);
+        List<LoanEventDTO> rows = loanEventRepository.findHistory(borrowerId, CursorPagination.startAfter(after),
+                CursorPagination.lookahead(pageSize));
+        if (rows.isEmpty() && !borrowerRepository.existsById(borrowerId)) {
+            throw new ResourceNotFoundException("Borrower not found with id: " + borrowerId);
+        }
+        return CursorPagination.toPage(rows, pageSize, LoanEventDTO::getId, Function.identity());
+    }
+}
@@ -0,0 +1,299 @@
+// CatalogSearchIndex.java
+package com.example.librarymanagementsystem.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the title and author of every ISBN, for word and prefix search without scanning
+ * the catalog. All copies of an ISBN share one entry (the ISBN registry keeps their title and author identical),
+ * so the index grows with distinct titles, not with copies. The term dictionary is sorted, which turns a prefix
+ * into a range of it.
+ * <p>
+ * A query matches the entries containing every query word, each as a whole term or as the start of one. Entries
+ * are ranked by the sum over the query words of the word's inverse document frequency, weighted by where it
+ * matched: a whole title word, a whole author word, a title prefix, then an author prefix. Equal scores go to the
+ * ISBN catalogued first.
+ * <p>
+ * Candidates come from the posting lists of the rarest query word, whole-word list first. Each list is kept in
+ * catalogue order, so a list can be abandoned as soon as none of its remaining entries could outrank the results
+ * already collected; a frequent word therefore costs about as much as a rare one.
+ */
+@Component
+public class CatalogSearchIndex implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSearchIndex.class);
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // A short prefix can expand to a large part of the dictionary. Such a word only filters the candidates of the
+    // other words; a query made only of such words collects candidates from the first terms of its range
+    private static final int MAX_PREFIX_TERMS = 256;
+
+    private static final int TITLE_TERM = 4;
+    private static final int AUTHOR_TERM = 3;
+    private static final int TITLE_PREFIX = 2;
+    private static final int AUTHOR_PREFIX = 1;
+    private static final Comparator<Entry> CATALOGUE_ORDER = Comparator.comparingLong(entry -> entry.sequence);
+    private static final Comparator<ScoredEntry> RANKING = Comparator.comparingDouble(ScoredEntry::score).reversed()
+            .thenComparingLong(scored -> scored.entry().sequence);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Entry> entriesByIsbn = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Postings> postings = new ConcurrentSkipListMap<>();
+
+    public CatalogSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        entriesByIsbn.clear();
+        postings.clear();
+        RowCallbackHandler indexRow = rs -> index(rs.getString(1), rs.getString(2), rs.getString(3), rs.getInt(4));
+        jdbcTemplate.query("SELECT isbn, MIN(title), MIN(author), COUNT(*) FROM book GROUP BY isbn ORDER BY MIN(id)",
+                indexRow);
+        logger.info("Search index built for {} ISBNs with {} terms", entriesByIsbn.size(), postings.size());
+    }
+
+    /** Counts a newly registered copy once its insert has committed, indexing the ISBN on its first copy. */
+    public void addCopy(String isbn, String title, String author) {
+        TransactionCallbacks.afterCommit(() -> index(isbn, title, author, 1));
+    }
+
+    /** The best {@code limit} entries matching every word of the query, most relevant first. */
+    public List<Entry> search(String query, int limit) {
+        List<String> words = new ArrayList<>(tokenize(query));
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        List<List<Postings>> matches = new ArrayList<>(words.size());
+        double[] idf = new double[words.size()];
+        int driver = -1;
+        long driverSize = Long.MAX_VALUE;
+        boolean driverTruncated = true;
+        for (int i = 0; i < words.size(); i++) {
+            List<Postings> postingLists = expand(words.get(i));
+            boolean truncated = postingLists.size() > MAX_PREFIX_TERMS;
+            long size = postingLists.stream().mapToLong(Postings::size).sum();
+            if (size == 0) {
+                return List.of();
+            }
+            matches.add(postingLists);
+            idf[i] = Math.log(1.0 + (double) entriesByIsbn.size() / size);
+            if ((driverTruncated && !truncated) || (truncated == driverTruncated && size < driverSize)) {
+                driver = i;
+                driverSize = size;
+                driverTruncated = truncated;
+            }
+        }
+        double otherWordsBound = 0;
+        for (int i = 0; i < words.size(); i++) {
+            otherWordsBound += i == driver ? 0 : TITLE_TERM * idf[i];
+        }
+
+        String driverWord = words.get(driver);
+        PriorityQueue<ScoredEntry> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (Postings postingList : matches.get(driver)) {
+            int driverWeight = postingList.term.equals(driverWord) ? TITLE_TERM : TITLE_PREFIX;
+            double bound = driverWeight * idf[driver] + otherWordsBound;
+            for (Entry candidate : postingList.entries) {
+                if (best.size() == limit && !canOutrank(bound, candidate, best.peek())) {
+                    break;
+                }
+                // An entry with several terms in the range is scored once, under the first of them
+                if (!postingList.term.equals(candidate.firstTermStartingWith(driverWord))) {
+                    continue;
+                }
+                double score = score(candidate, words, idf);
+                if (score > 0) {
+                    best.offer(new ScoredEntry(candidate, score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+        List<ScoredEntry> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        return ranked.stream().map(ScoredEntry::entry).toList();
+    }
+
+    // Later entries of a list come later in catalogue order, so once one of them cannot win a tie none can
+    private static boolean canOutrank(double bound, Entry candidate, ScoredEntry worst) {
+        return bound > worst.score() || (bound == worst.score() && candidate.sequence < worst.entry().sequence);
+    }
+
+    private static double score(Entry entry, List<String> words, double[] idf) {
+        double score = 0;
+        for (int i = 0; i < words.size(); i++) {
+            int weight = entry.match(words.get(i));
+            if (weight == 0) {
+                return 0;
+            }
+            score += weight * idf[i];
+        }
+        return score;
+    }
+
+    // The whole word, when it is a term, sorts first; one list past the bound tells the caller the range was cut off
+    private List<Postings> expand(String word) {
+        List<Postings> postingLists = new ArrayList<>();
+        for (Postings postingList : postings.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+            postingLists.add(postingList);
+            if (postingLists.size() > MAX_PREFIX_TERMS) {
+                break;
+            }
+        }
+        return postingLists;
+    }
+
+    private void index(String isbn, String title, String author, int copies) {
+        Entry entry = entriesByIsbn.computeIfAbsent(isbn, key -> {
+            Entry created = new Entry(sequence.incrementAndGet(), isbn, title, author);
+            Set<String> terms = new HashSet<>(List.of(created.titleTerms));
+            terms.addAll(List.of(created.authorTerms));
+            terms.forEach(term -> postings.computeIfAbsent(term, Postings::new).add(created));
+            return created;
+        });
+        entry.copies.addAndGet(copies);
+    }
+
+    // Lower-cased words with accents stripped, so "Émile" is found by "emile"
+    static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("");
+        for (String term : NON_WORD.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private record ScoredEntry(Entry entry, double score) {
+    }
+
+    private static final class Postings {
+        private final String term;
+        private final Set<Entry> entries = new ConcurrentSkipListSet<>(CATALOGUE_ORDER);
+        private final AtomicInteger size = new AtomicInteger();
+
+        private Postings(String term) {
+            this.term = term;
+        }
+
+        private void add(Entry entry) {
+            if (entries.add(entry)) {
+                size.incrementAndGet();
+            }
+        }
+
+        // Kept apart because ConcurrentSkipListSet counts its elements one by one
+        private int size() {
+            return size.get();
+        }
+    }
+
+    /** One ISBN in the index: its bibliographic data and how many copies are on file. */
+    public static final class Entry {
+        private final long sequence;
+        private final String isbn;
+        private final String title;
+        private final String author;
+        private final String[] titleTerms;
+        private final String[] authorTerms;
+        private final AtomicInteger copies = new AtomicInteger();
+
+        private Entry(long sequence, String isbn, String title, String author) {
+            this.sequence = sequence;
+            this.isbn = isbn;
+            this.title = title;
+            this.author = author;
+            this.titleTerms = tokenize(title).toArray(String[]::new);
+            this.authorTerms = tokenize(author).toArray(String[]::new);
+        }
+
+        public String getIsbn() {
+            return isbn;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getAuthor() {
+            return author;
+        }
+
+        public int getCopies() {
+            return copies.get();
+        }
+
+        private int match(String word) {
+            int weight = 0;
+            for (String term : titleTerms) {
+                if (term.equals(word)) {
+                    return TITLE_TERM;
+                }
+                if (term.startsWith(word)) {
+                    weight = TITLE_PREFIX;
+                }
+            }
+            for (String term : authorTerms) {
+                if (term.equals(word)) {
+                    return AUTHOR_TERM;
+                }
+                if (term.startsWith(word)) {
+                    weight = Math.max(weight, AUTHOR_PREFIX);
+                }
+            }
+            return weight;
+        }
+
+        private String firstTermStartingWith(String word) {
+            String first = null;
+            for (String term : titleTerms) {
+                if (term.startsWith(word) && (first == null || term.compareTo(first) < 0)) {
+                    first = term;
+                }
+            }
+            for (String term : authorTerms) {
+                if (term.startsWith(word) && (first == null || term.compareTo(first) < 0)) {
+                    first = term;
+                }
+            }
+            return first;
+        }
+    }
+}
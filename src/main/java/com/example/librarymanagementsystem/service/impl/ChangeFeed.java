@@ -0,0 +1,340 @@
+// ChangeFeed.java
+package com.example.librarymanagementsystem.service.impl;
+
+import com.example.librarymanagementsystem.config.ChangeFeedProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed catalog and loan changes to Server-Sent Events subscribers. Each change is serialized once,
+ * numbered and kept in a bounded replay ring; every subscriber keeps its own position in the ring. A small pool of
+ * sender threads writes each subscriber's outstanding changes, so an idle subscriber holds memory but no thread.
+ * A subscriber that reads slower than changes arrive is disconnected once it is more than
+ * {@code subscriber-queue-capacity} changes behind, and can resume from its Last-Event-ID.
+ * <p>
+ * A send that blocks for longer than {@code send-timeout}, because the client stopped reading, disconnects its
+ * subscriber and the pool gets a thread in its place; the blocked one leaves the pool once the container gives up
+ * on the write.
+ * <p>
+ * Event ids carry an id unique to this process. A Last-Event-ID from another process, or older than the replay
+ * ring, is answered with a {@code reset} event: the client has missed changes and must reload what it shows.
+ */
+@Component
+public class ChangeFeed implements DisposableBean {
+
+    public static final String BOOK_REGISTERED = "book-registered";
+    public static final String BORROWER_REGISTERED = "borrower-registered";
+    public static final String BORROWED = "borrowed";
+    public static final String RETURNED = "returned";
+    public static final String RESET = "reset";
+
+    private static final long IDLE = 0;
+    private static final long TAKEN_OVER = -1;
+
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final ObjectMapper objectMapper;
+    private final ChangeFeedProperties properties;
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService watchdog;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter slowDisconnects;
+    private final Counter stalledDisconnects;
+
+    // Guarded by itself, and only held to number a change and store it, or to read one back
+    private final Change[] ring;
+    // Only written under the ring lock
+    private volatile long sequence;
+
+    public ChangeFeed(ObjectMapper objectMapper, ChangeFeedProperties properties, MeterRegistry registry) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.ring = new Change[Math.max(1, properties.getReplayCapacity())];
+        this.senders = new ThreadPoolExecutor(properties.getSendThreads(), Integer.MAX_VALUE, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("change-feed-"));
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(daemonThreads("change-feed-watchdog-"));
+        long heartbeatMillis = properties.getHeartbeat().toMillis();
+        watchdog.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long checkMillis = Math.max(1, properties.getSendTimeout().toMillis() / 2);
+        watchdog.scheduleWithFixedDelay(this::disconnectStalled, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("library.events.subscribers", subscribers, Collection::size)
+                .description("Open change feed subscriptions")
+                .register(registry);
+        this.slowDisconnects = Counter.builder("library.events.disconnects")
+                .description("Subscribers disconnected for falling too far behind")
+                .tag("reason", "slow")
+                .register(registry);
+        this.stalledDisconnects = Counter.builder("library.events.disconnects")
+                .description("Subscribers disconnected because a send blocked for longer than the send timeout")
+                .tag("reason", "stalled")
+                .register(registry);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** Publishes a change once the surrounding transaction commits; nothing is sent for a rollback. */
+    public void publish(String name, Object payload) {
+        String data = toJson(payload);
+        TransactionCallbacks.afterCommit(() -> fanOut(name, data));
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Change payload is not serializable", e);
+        }
+    }
+
+    private void fanOut(String name, String data) {
+        long latest;
+        synchronized (ring) {
+            latest = sequence + 1;
+            ring[slot(latest)] = new Change(eventId(latest), name, data);
+            sequence = latest;
+        }
+        // Senders read the change from the ring in sequence order, so nothing per subscriber is needed here
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.behind(latest) > properties.getSubscriberQueueCapacity()) {
+                disconnect(subscriber, slowDisconnects);
+            } else {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Registers the emitter for changes committed from now on, preceded by those after {@code lastEventId} when it
+     * can be resumed. Returns false, leaving the emitter untouched, when the subscriber limit has been reached.
+     */
+    public boolean subscribe(SseEmitter emitter, String lastEventId) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            return false;
+        }
+        Subscriber subscriber;
+        synchronized (ring) {
+            long resumeAfter = lastEventId == null ? sequence : resumePoint(lastEventId);
+            subscriber = new Subscriber(emitter, resumeAfter < 0 ? sequence : resumeAfter, sequence);
+            if (resumeAfter < 0) {
+                subscriber.backlog.add(new Change(eventId(sequence), RESET, "{}"));
+            } else if (resumeAfter == sequence) {
+                // Tells a new client where it stands, so even its first reconnect can resume
+                subscriber.backlog.add(new Change(eventId(sequence), null, null));
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        schedule(subscriber);
+        return true;
+    }
+
+    // The sequence to replay after, or -1 when the changes since then are no longer (or were never) held here
+    private long resumePoint(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(instance)) {
+            return -1;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        long oldestHeld = Math.max(1, sequence - ring.length + 1);
+        return last < oldestHeld - 1 || last > sequence ? -1 : last;
+    }
+
+    private String eventId(long sequence) {
+        return instance + "-" + sequence;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (!subscriber.disconnected) {
+                Change change = next(subscriber);
+                if (change == null) {
+                    subscriber.scheduled.set(false);
+                    // A change published between the empty read and clearing the flag would otherwise wait for the next
+                    if (!subscriber.hasPending(sequence) || !subscriber.scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                send(subscriber, change);
+            }
+            // Completed here rather than by whoever disconnected it: the emitter is locked while a send is blocked
+            subscriber.emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // The client has gone or the emitter was completed; the container completes the request itself
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private Change next(Subscriber subscriber) {
+        Change change = subscriber.backlog.poll();
+        if (change != null) {
+            return change;
+        }
+        long position = subscriber.position;
+        if (position < sequence) {
+            synchronized (ring) {
+                // The ring has wrapped past this subscriber between fanOut's check and this read
+                if (sequence - position > ring.length) {
+                    disconnect(subscriber, slowDisconnects);
+                    return null;
+                }
+                change = ring[slot(position + 1)];
+            }
+            subscriber.position = position + 1;
+            return change;
+        }
+        return subscriber.heartbeatDue.getAndSet(false) ? Change.HEARTBEAT : null;
+    }
+
+    private void send(Subscriber subscriber, Change change) throws IOException {
+        subscriber.sendStarted.set(System.nanoTime());
+        try {
+            subscriber.emitter.send(change.toEvent());
+        } finally {
+            if (subscriber.sendStarted.getAndSet(IDLE) == TAKEN_OVER) {
+                // Replaced by the watchdog while blocked; this thread is now one too many
+                resizeSenders(-1);
+            }
+        }
+    }
+
+    // Removes the subscriber; its sender completes the emitter once any send in progress has returned
+    private void disconnect(Subscriber subscriber, Counter reason) {
+        if (subscribers.remove(subscriber)) {
+            reason.increment();
+            subscriber.disconnected = true;
+            schedule(subscriber);
+        }
+    }
+
+    // Runs on the watchdog thread, which never sends, so it is not held up by the sends it checks
+    private void disconnectStalled() {
+        long now = System.nanoTime();
+        long timeout = properties.getSendTimeout().toNanos();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStarted.get();
+            if (started != IDLE && started != TAKEN_OVER && now - started > timeout
+                    && subscriber.sendStarted.compareAndSet(started, TAKEN_OVER)) {
+                disconnect(subscriber, stalledDisconnects);
+                resizeSenders(1);
+            }
+        }
+    }
+
+    private void resizeSenders(int delta) {
+        synchronized (senders) {
+            senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+        }
+    }
+
+    // Keeps idle connections open through proxies and finds clients that have gone away
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue.set(true);
+            schedule(subscriber);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void destroy() {
+        watchdog.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private record Change(String id, String name, String data) {
+
+        static final Change HEARTBEAT = new Change(null, null, null);
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (id == null) {
+                return SseEmitter.event().comment("");
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event().id(id);
+            // An id without data moves the client's Last-Event-ID without dispatching an event
+            return name == null ? event : event.name(name).data(data);
+        }
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        // Sequence of the change that was current when the subscription started
+        final long subscribedAt;
+        // Reset or position marker taken at subscription; only the sender draining this subscriber reads it
+        final Queue<Change> backlog = new ArrayDeque<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        // When the send in progress started, IDLE between sends, TAKEN_OVER once the watchdog gave up on it
+        final AtomicLong sendStarted = new AtomicLong(IDLE);
+        // Sequence of the last change handed to the emitter; only written by the sender draining this subscriber
+        volatile long position;
+        volatile boolean disconnected;
+
+        Subscriber(SseEmitter emitter, long position, long subscribedAt) {
+            this.emitter = emitter;
+            this.position = position;
+            this.subscribedAt = subscribedAt;
+        }
+
+        // Changes published since the subscription that have not been sent yet; a replay does not count
+        long behind(long latest) {
+            return latest - Math.max(position, subscribedAt);
+        }
+
+        boolean hasPending(long latest) {
+            return !backlog.isEmpty() || position < latest || heartbeatDue.get();
+        }
+    }
+}
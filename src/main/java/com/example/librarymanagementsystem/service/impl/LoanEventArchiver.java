@@ -0,0 +1,65 @@
+// LoanEventArchiver.java
+package com.example.librarymanagementsystem.service.impl;
+
+import com.example.librarymanagementsystem.config.LoanHistoryProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Moves loan events older than the retention period from {@code loan_event} to {@code loan_event_archive}, oldest
+ * first and a bounded number of rows per transaction, so the table the writer appends to and the history endpoint
+ * reads stays the size of the retention window.
+ */
+@Component
+public class LoanEventArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanEventArchiver.class);
+
+    // Highest id among the oldest batch; ids grow with insertion order, so one range covers the batch
+    private static final String BATCH_END_SQL = "SELECT MAX(id) FROM (SELECT id FROM loan_event WHERE occurred_at < ? "
+            + "ORDER BY id LIMIT ?) oldest";
+    private static final String COPY_SQL = "INSERT INTO loan_event_archive (id, book_id, borrower_id, event_type, occurred_at) "
+            + "SELECT id, book_id, borrower_id, event_type, occurred_at FROM loan_event WHERE id <= ? AND occurred_at < ?";
+    private static final String DELETE_SQL = "DELETE FROM loan_event WHERE id <= ? AND occurred_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LoanHistoryProperties properties;
+
+    public LoanEventArchiver(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             LoanHistoryProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${library.loan-history.archive-cron:-}")
+    public void archive() {
+        Instant cutoff = Instant.now().minus(properties.getRetention());
+        long moved = archiveOlderThan(cutoff);
+        logger.info("Archived {} loan events older than {}", moved, cutoff);
+    }
+
+    public long archiveOlderThan(Instant cutoff) {
+        Timestamp before = Timestamp.from(cutoff);
+        long moved = 0;
+        while (true) {
+            Long batchEnd = jdbcTemplate.queryForObject(BATCH_END_SQL, Long.class, before, properties.getArchiveBatchSize());
+            if (batchEnd == null) {
+                return moved;
+            }
+            moved += transactionTemplate.execute(status -> {
+                jdbcTemplate.update(COPY_SQL, batchEnd, before);
+                return jdbcTemplate.update(DELETE_SQL, batchEnd, before);
+            });
+        }
+    }
+}
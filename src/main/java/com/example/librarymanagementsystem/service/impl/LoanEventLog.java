@@ -0,0 +1,249 @@
+// LoanEventLog.java
+package com.example.librarymanagementsystem.service.impl;
+
+import com.example.librarymanagementsystem.config.LoanHistoryProperties;
+import com.example.librarymanagementsystem.config.LoanHistoryProperties.Durability;
+import com.example.librarymanagementsystem.entity.LoanEvent;
+import com.example.librarymanagementsystem.entity.LoanEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Appends one {@code loan_event} row per borrow or return. With {@code sync} durability the row is inserted in the
+ * loan's transaction. Otherwise the event is put on a bounded queue once the loan commits, and a single background
+ * thread inserts whatever has queued up as one JDBC batch in one transaction; with {@code group-commit} the request
+ * waits for that batch, so concurrent loans share the round trip, and with {@code async} it does not, so events
+ * still queued when the process dies are lost. A caller that finds the queue full for longer than the enqueue
+ * timeout inserts its own event, slowing that request down rather than dropping history.
+ * <p>
+ * Batches and caller-written events go through a connection pool of their own ({@code writerJdbcTemplate}): a
+ * group-commit caller still holds its request's connection while it waits, so a writer drawing from the same pool
+ * would starve as soon as the waiting callers had taken every connection.
+ */
+public class LoanEventLog implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanEventLog.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO loan_event (book_id, borrower_id, event_type, occurred_at) VALUES (?, ?, ?, ?)";
+    // How often an idle writer checks whether it has been asked to stop
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate writerJdbcTemplate;
+    private final TransactionTemplate writeTransaction;
+    private final LoanHistoryProperties properties;
+    private final BlockingQueue<PendingEvent> queue;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter batched;
+    private final Counter direct;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public LoanEventLog(JdbcTemplate jdbcTemplate, JdbcTemplate writerJdbcTemplate,
+                        PlatformTransactionManager writerTransactionManager, LoanHistoryProperties properties,
+                        MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writerJdbcTemplate = writerJdbcTemplate;
+        // A transaction of its own: direct writes run after the loan has committed, batches on the writer thread
+        this.writeTransaction = new TransactionTemplate(writerTransactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        Gauge.builder("library.loan.events.queue.depth", queue, Collection::size)
+                .description("Loan events waiting for the background writer")
+                .register(registry);
+        this.flushTimer = Timer.builder("library.loan.events.flush")
+                .description("Time to insert one batch of loan events")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("library.loan.events.batch.size")
+                .description("Loan events inserted per batch")
+                .register(registry);
+        this.batched = eventCounter(registry, "batched");
+        this.direct = eventCounter(registry, "direct");
+        this.failed = eventCounter(registry, "failed");
+    }
+
+    private static Counter eventCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("library.loan.events")
+                .description("Loan events by how they were written")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    public void record(LoanEventType type, Long bookId, Long borrowerId) {
+        LoanEvent event = new LoanEvent(null, bookId, borrowerId, type, Instant.now());
+        Durability durability = properties.getDurability();
+        if (durability == Durability.SYNC) {
+            jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, event));
+            direct.increment();
+        } else if (durability == Durability.GROUP_COMMIT) {
+            TransactionCallbacks.afterCommit(() -> awaitWritten(enqueue(event)));
+        } else {
+            TransactionCallbacks.afterCommit(() -> enqueue(event));
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(LoanEvent event) {
+        PendingEvent pending = new PendingEvent(event, new CompletableFuture<>());
+        boolean queued = false;
+        if (running) {
+            try {
+                queued = queue.offer(pending, properties.getEnqueueTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!queued) {
+            write(List.of(pending), direct);
+        }
+        return pending.written();
+    }
+
+    private void awaitWritten(CompletableFuture<Void> written) {
+        try {
+            written.get(properties.getCommitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // The loan itself has committed, so the request still succeeds; a failed write is logged by the writer
+            logger.warn("Loan event not confirmed as written: {}", e.toString());
+        }
+    }
+
+    private void drain() {
+        List<PendingEvent> batch = new ArrayList<>(properties.getBatchSize());
+        long lingerNanos = properties.getDurability() == Durability.ASYNC ? properties.getFlushInterval().toNanos() : 0;
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEvent first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch, lingerNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                if (!batch.isEmpty()) {
+                    write(batch, batched);
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    // Group commit takes only what is already queued; async waits up to the flush interval for a fuller batch
+    private void fill(List<PendingEvent> batch, long lingerNanos) throws InterruptedException {
+        int batchSize = properties.getBatchSize();
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            PendingEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<PendingEvent> batch, Counter outcome) {
+        Timer.Sample sample = Timer.start();
+        try {
+            writeTransaction.executeWithoutResult(status -> writerJdbcTemplate.batchUpdate(INSERT_SQL, batch,
+                    batch.size(), (ps, pending) -> bind(ps, pending.event())));
+            outcome.increment(batch.size());
+            batch.forEach(pending -> pending.written().complete(null));
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            logger.error("Could not write {} loan events", batch.size(), e);
+            batch.forEach(pending -> pending.written().completeExceptionally(e));
+        } finally {
+            sample.stop(flushTimer);
+            batchSizes.record(batch.size());
+        }
+    }
+
+    private static void bind(PreparedStatement ps, LoanEvent event) throws SQLException {
+        ps.setLong(1, event.getBookId());
+        ps.setLong(2, event.getBorrowerId());
+        ps.setString(3, event.getType().name());
+        ps.setTimestamp(4, Timestamp.from(event.getOccurredAt()));
+    }
+
+    public int queuedEvents() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drain, "loan-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Events offered after the writer's last look at the queue
+        List<PendingEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining, batched);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stops after the web server, once no request can record another event
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private record PendingEvent(LoanEvent event, CompletableFuture<Void> written) {
+    }
+}
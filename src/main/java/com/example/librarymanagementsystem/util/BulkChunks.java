@@ -0,0 +1,40 @@
+// BulkChunks.java
+package com.example.librarymanagementsystem.util;
+
+import com.example.librarymanagementsystem.dto.BulkItemResultDTO;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Feeds a bulk request body to a service in fixed-size chunks. Each chunk is validated with a handful of
+ * set-based queries and committed in its own transaction, so memory and lock time stay bounded however
+ * large the body is. Result indexes are shifted back to positions in the whole body.
+ */
+public final class BulkChunks {
+
+    public static final int CHUNK_SIZE = 1000;
+
+    private BulkChunks() {
+    }
+
+    public static <T> List<BulkItemResultDTO> register(Iterator<T> items,
+                                                       Function<List<T>, List<BulkItemResultDTO>> registerChunk) {
+        List<BulkItemResultDTO> results = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (items.hasNext()) {
+            chunk.add(items.next());
+            if (chunk.size() == CHUNK_SIZE || !items.hasNext()) {
+                int offset = results.size();
+                for (BulkItemResultDTO result : registerChunk.apply(chunk)) {
+                    result.setIndex(result.getIndex() + offset);
+                    results.add(result);
+                }
+                chunk.clear();
+            }
+        }
+        return results;
+    }
+}
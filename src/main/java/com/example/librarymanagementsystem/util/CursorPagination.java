@@ -0,0 +1,45 @@
+// CursorPagination.java
+package com.example.librarymanagementsystem.util;
+
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helpers shared by the keyset-paginated listings. A page is fetched with one extra row so the
+ * presence of a following page is known without a COUNT query.
+ */
+public final class CursorPagination {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 1000;
+
+    private CursorPagination() {
+    }
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    public static long startAfter(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    public static Pageable lookahead(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    public static <E, T> CursorPageDTO<T> toPage(List<E> rows, int limit, Function<E, Long> idOf, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> page = hasMore ? rows.subList(0, limit) : rows;
+        List<T> items = page.stream().map(mapper).toList();
+        Long nextCursor = hasMore ? idOf.apply(page.get(page.size() - 1)) : null;
+        return new CursorPageDTO<>(items, nextCursor);
+    }
+}
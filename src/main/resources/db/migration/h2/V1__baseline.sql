@@ -0,0 +1,20 @@
+-- The schema as Hibernate's ddl-auto: update created it for the original Book and Borrower mappings, before
+-- versioned migrations. Databases created that way are recorded at this version without running it, so everything
+-- added since belongs in a later version.
+CREATE TABLE book (
+    borrower_id BIGINT,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    author VARCHAR(255) NOT NULL,
+    isbn VARCHAR(255) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE borrower (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE book ADD CONSTRAINT FK4nrwjj91jgcf42c3h5i55ar7k FOREIGN KEY (borrower_id) REFERENCES borrower;
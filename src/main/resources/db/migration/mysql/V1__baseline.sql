@@ -0,0 +1,22 @@
+-- The schema as Hibernate's ddl-auto: update created it for the original Book and Borrower mappings, before
+-- versioned migrations. Databases created that way are recorded at this version without running it, so everything
+-- added since belongs in a later version.
+CREATE TABLE book (
+    borrower_id BIGINT,
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    author VARCHAR(255) NOT NULL,
+    isbn VARCHAR(255) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE borrower (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+ALTER TABLE borrower ADD CONSTRAINT UKb32npirfvnbp9jrskluwkf3p2 UNIQUE (email);
+
+ALTER TABLE book ADD CONSTRAINT FK4nrwjj91jgcf42c3h5i55ar7k FOREIGN KEY (borrower_id) REFERENCES borrower (id);
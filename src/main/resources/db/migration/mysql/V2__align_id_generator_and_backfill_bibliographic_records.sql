@@ -0,0 +1,34 @@
+-- The ISBN registry and the table id generator, and the one-time data fixes that used to run on every startup.
+
+CREATE TABLE bibliographic_record (
+    isbn VARCHAR(255) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    author VARCHAR(255) NOT NULL,
+    PRIMARY KEY (isbn)
+) ENGINE = InnoDB;
+
+-- Table generator for book and borrower ids (pooled-lo, blocks of 50). The id columns keep their identity
+-- definition from V1; Hibernate now supplies every id, so it is never used.
+CREATE TABLE id_generator (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (sequence_name)
+) ENGINE = InnoDB;
+
+-- Books and borrowers inserted while ids were IDENTITY-generated: start each table generator past the highest id
+-- already stored, or the first pooled block would collide with existing rows
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'book', 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM id_generator WHERE sequence_name = 'book');
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'borrower', 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM id_generator WHERE sequence_name = 'borrower');
+UPDATE id_generator SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM book)
+WHERE sequence_name = 'book' AND next_val < (SELECT COALESCE(MAX(id), 0) + 1 FROM book);
+UPDATE id_generator SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM borrower)
+WHERE sequence_name = 'borrower' AND next_val < (SELECT COALESCE(MAX(id), 0) + 1 FROM borrower);
+
+-- Books registered before the ISBN registry existed get one bibliographic_record per ISBN. Copies of one ISBN
+-- always agreed on title and author under the old validation, so MIN picks that value.
+INSERT INTO bibliographic_record (isbn, title, author)
+SELECT b.isbn, MIN(b.title), MIN(b.author) FROM book b
+WHERE NOT EXISTS (SELECT 1 FROM bibliographic_record r WHERE r.isbn = b.isbn)
+GROUP BY b.isbn;
@@ -0,0 +1,11 @@
+-- Indexes for the book queries (QueryIndexCoverageTest checks every repository query uses one).
+
+-- Free copies of an ISBN (isbn = ? AND borrower_id IS NULL) and per-ISBN copy and loan counts are answered from
+-- the index alone; lookups by ISBN use its first column
+CREATE INDEX idx_book_isbn_borrower ON book (isbn, borrower_id);
+
+-- A borrower's loans; MySQL may then drop the index it created for the foreign key, which this one can enforce
+CREATE INDEX idx_book_borrower ON book (borrower_id);
+
+-- Catalog pages filtered by author, walked in id order
+CREATE INDEX idx_book_author ON book (author, id);
@@ -0,0 +1,23 @@
+-- Loan history: events are appended to loan_event and moved to loan_event_archive once they age out.
+
+CREATE TABLE loan_event (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    book_id BIGINT NOT NULL,
+    borrower_id BIGINT NOT NULL,
+    event_type ENUM ('BORROW', 'RETURN') NOT NULL,
+    occurred_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+CREATE INDEX idx_loan_event_borrower ON loan_event (borrower_id, id);
+CREATE INDEX idx_loan_event_occurred_at ON loan_event (occurred_at);
+
+CREATE TABLE loan_event_archive (
+    id BIGINT NOT NULL,
+    book_id BIGINT NOT NULL,
+    borrower_id BIGINT NOT NULL,
+    event_type ENUM ('BORROW', 'RETURN') NOT NULL,
+    occurred_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+CREATE INDEX idx_loan_event_archive_borrower ON loan_event_archive (borrower_id, id);
+CREATE INDEX idx_loan_event_archive_occurred_at ON loan_event_archive (occurred_at);
@@ -0,0 +1,33 @@
+// ReactiveLibraryApplication.java
+package com.example.librarymanagementsystem.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Non-blocking read API for books and borrowers: the {@code GET /api/books} and {@code GET /api/borrowers}
+ * contracts of the MVC application, served by WebFlux on Reactor Netty over R2DBC. A fixed set of event-loop
+ * threads (one per core) handles every connection, so thousands of concurrent readers need no thread each.
+ * <p>
+ * Writes stay with {@link com.example.librarymanagementsystem.LibraryManagementSystemApplication}, which owns the
+ * id generator, the ISBN registry, the availability index and the caches; this application reads the same tables.
+ */
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
+public class ReactiveLibraryApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveLibraryApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .run(args);
+    }
+
+    // Tomcat is also on the classpath and would otherwise be picked as the reactive server
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,53 @@
+// ReactiveBookController.java
+package com.example.librarymanagementsystem.reactive.controller;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import com.example.librarymanagementsystem.reactive.service.ReactiveBookService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/books")
+public class ReactiveBookController {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveBookController.class);
+
+    private final ReactiveBookService bookService;
+
+    public ReactiveBookController(ReactiveBookService bookService) {
+        this.bookService = bookService;
+    }
+
+    @GetMapping
+    public Mono<CursorPageDTO<BookDTO>> getAllBooks(@RequestParam(required = false) Long after,
+                                                    @RequestParam(required = false) Integer limit,
+                                                    @RequestParam(required = false) String author,
+                                                    @RequestParam(required = false) String isbn,
+                                                    @RequestParam(required = false) Boolean available) {
+        logger.info("Request to get books after: {}, limit: {}", after, limit);
+        return bookService.getBooks(after, limit, author, isbn, available);
+    }
+
+    // Every matching book after the cursor, written as rows arrive and only as fast as the client reads
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookDTO> streamBooks(@RequestParam(required = false) Long after,
+                                     @RequestParam(required = false) String author,
+                                     @RequestParam(required = false) String isbn,
+                                     @RequestParam(required = false) Boolean available) {
+        logger.info("Request to stream books after: {}", after);
+        return bookService.streamBooks(after, author, isbn, available);
+    }
+
+    @GetMapping("/{bookId}")
+    public Mono<ResponseEntity<BookDTO>> getBookDetails(@PathVariable Long bookId) {
+        logger.info("Request to get book with id: {}", bookId);
+        return bookService.getBookById(bookId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
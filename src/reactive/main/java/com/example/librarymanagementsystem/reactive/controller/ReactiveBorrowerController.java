@@ -0,0 +1,46 @@
+// ReactiveBorrowerController.java
+package com.example.librarymanagementsystem.reactive.controller;
+
+import com.example.librarymanagementsystem.dto.BorrowerDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import com.example.librarymanagementsystem.reactive.service.ReactiveBorrowerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/borrowers")
+public class ReactiveBorrowerController {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveBorrowerController.class);
+
+    private final ReactiveBorrowerService borrowerService;
+
+    public ReactiveBorrowerController(ReactiveBorrowerService borrowerService) {
+        this.borrowerService = borrowerService;
+    }
+
+    @GetMapping
+    public Mono<CursorPageDTO<BorrowerDTO>> getAllBorrowers(@RequestParam(required = false) Long after,
+                                                            @RequestParam(required = false) Integer limit) {
+        logger.info("Request to get borrowers after: {}, limit: {}", after, limit);
+        return borrowerService.getBorrowers(after, limit);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BorrowerDTO> streamBorrowers(@RequestParam(required = false) Long after) {
+        logger.info("Request to stream borrowers after: {}", after);
+        return borrowerService.streamBorrowers(after);
+    }
+
+    @GetMapping("/{borrowerId}")
+    public Mono<ResponseEntity<BorrowerDTO>> getBorrowerDetails(@PathVariable Long borrowerId) {
+        logger.info("Request to get borrower with id: {}", borrowerId);
+        return borrowerService.getBorrowerById(borrowerId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
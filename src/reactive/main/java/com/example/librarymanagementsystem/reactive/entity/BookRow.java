@@ -0,0 +1,30 @@
+// BookRow.java
+package com.example.librarymanagementsystem.reactive.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+// R2DBC view of the book table; the borrower is kept as its id since R2DBC maps no relationships
+@Table("book")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookRow {
+    @Id
+    private Long id;
+
+    private String isbn;
+
+    private String title;
+
+    private String author;
+
+    @Column("borrower_id")
+    private Long borrowerId;
+}
@@ -0,0 +1,24 @@
+// BorrowerRow.java
+package com.example.librarymanagementsystem.reactive.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+// R2DBC view of the borrower table
+@Table("borrower")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BorrowerRow {
+    @Id
+    private Long id;
+
+    private String email;
+
+    private String name;
+}
@@ -0,0 +1,11 @@
+// ReactiveBookQueries.java
+package com.example.librarymanagementsystem.reactive.repository;
+
+import com.example.librarymanagementsystem.reactive.entity.BookRow;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveBookQueries {
+    // Keyset page with the same optional filters as BookPageQueries.findPage; an unpaged request streams every match
+    Flux<BookRow> findPage(long after, String author, String isbn, Boolean available, Pageable pageable);
+}
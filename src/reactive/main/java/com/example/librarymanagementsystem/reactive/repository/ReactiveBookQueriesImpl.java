@@ -0,0 +1,39 @@
+// ReactiveBookQueriesImpl.java
+package com.example.librarymanagementsystem.reactive.repository;
+
+import com.example.librarymanagementsystem.reactive.entity.BookRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import reactor.core.publisher.Flux;
+
+class ReactiveBookQueriesImpl implements ReactiveBookQueries {
+
+    private final R2dbcEntityTemplate template;
+
+    ReactiveBookQueriesImpl(R2dbcEntityTemplate template) {
+        this.template = template;
+    }
+
+    @Override
+    public Flux<BookRow> findPage(long after, String author, String isbn, Boolean available, Pageable pageable) {
+        // Only the filters that are present become predicates, so the statement stays index-friendly
+        Criteria criteria = Criteria.where("id").greaterThan(after);
+        if (author != null) {
+            criteria = criteria.and("author").is(author);
+        }
+        if (isbn != null) {
+            criteria = criteria.and("isbn").is(isbn);
+        }
+        if (available != null) {
+            criteria = available ? criteria.and("borrowerId").isNull() : criteria.and("borrowerId").isNotNull();
+        }
+        Query query = Query.query(criteria).sort(Sort.by("id"));
+        if (pageable.isPaged()) {
+            query = query.limit(pageable.getPageSize());
+        }
+        return template.select(query, BookRow.class);
+    }
+}
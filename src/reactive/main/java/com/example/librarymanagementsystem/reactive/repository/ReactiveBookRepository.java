@@ -0,0 +1,10 @@
+// ReactiveBookRepository.java
+package com.example.librarymanagementsystem.reactive.repository;
+
+import com.example.librarymanagementsystem.reactive.entity.BookRow;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReactiveBookRepository extends R2dbcRepository<BookRow, Long>, ReactiveBookQueries {
+}
@@ -0,0 +1,13 @@
+// ReactiveBorrowerRepository.java
+package com.example.librarymanagementsystem.reactive.repository;
+
+import com.example.librarymanagementsystem.reactive.entity.BorrowerRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveBorrowerRepository extends R2dbcRepository<BorrowerRow, Long> {
+    Flux<BorrowerRow> findByIdGreaterThanOrderByIdAsc(long after, Pageable pageable);
+}
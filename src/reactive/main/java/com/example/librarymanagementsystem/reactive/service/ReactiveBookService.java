@@ -0,0 +1,14 @@
+// ReactiveBookService.java
+package com.example.librarymanagementsystem.reactive.service;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBookService {
+    Mono<CursorPageDTO<BookDTO>> getBooks(Long after, Integer limit, String author, String isbn, Boolean available);
+    Flux<BookDTO> streamBooks(Long after, String author, String isbn, Boolean available);
+
+    Mono<BookDTO> getBookById(Long bookId);
+}
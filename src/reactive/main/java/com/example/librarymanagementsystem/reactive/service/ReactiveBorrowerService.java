@@ -0,0 +1,14 @@
+// ReactiveBorrowerService.java
+package com.example.librarymanagementsystem.reactive.service;
+
+import com.example.librarymanagementsystem.dto.BorrowerDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBorrowerService {
+    Mono<CursorPageDTO<BorrowerDTO>> getBorrowers(Long after, Integer limit);
+    Flux<BorrowerDTO> streamBorrowers(Long after);
+
+    Mono<BorrowerDTO> getBorrowerById(Long borrowerId);
+}
@@ -0,0 +1,47 @@
+// ReactiveBookServiceImpl.java
+package com.example.librarymanagementsystem.reactive.service.impl;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import com.example.librarymanagementsystem.reactive.entity.BookRow;
+import com.example.librarymanagementsystem.reactive.repository.ReactiveBookRepository;
+import com.example.librarymanagementsystem.reactive.service.ReactiveBookService;
+import com.example.librarymanagementsystem.util.CursorPagination;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class ReactiveBookServiceImpl implements ReactiveBookService {
+
+    private final ReactiveBookRepository bookRepository;
+
+    public ReactiveBookServiceImpl(ReactiveBookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @Override
+    public Mono<CursorPageDTO<BookDTO>> getBooks(Long after, Integer limit, String author, String isbn, Boolean available) {
+        int pageSize = CursorPagination.clampLimit(limit);
+        return bookRepository.findPage(CursorPagination.startAfter(after), author, isbn, available,
+                        CursorPagination.lookahead(pageSize))
+                .collectList()
+                .map(rows -> CursorPagination.toPage(rows, pageSize, BookRow::getId, this::toDto));
+    }
+
+    @Override
+    public Flux<BookDTO> streamBooks(Long after, String author, String isbn, Boolean available) {
+        return bookRepository.findPage(CursorPagination.startAfter(after), author, isbn, available, Pageable.unpaged())
+                .map(this::toDto);
+    }
+
+    @Override
+    public Mono<BookDTO> getBookById(Long bookId) {
+        return bookRepository.findById(bookId).map(this::toDto);
+    }
+
+    private BookDTO toDto(BookRow row) {
+        return new BookDTO(row.getId(), row.getIsbn(), row.getTitle(), row.getAuthor(), row.getBorrowerId());
+    }
+}
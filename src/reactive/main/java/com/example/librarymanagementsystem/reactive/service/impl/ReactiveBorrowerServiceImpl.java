@@ -0,0 +1,47 @@
+// ReactiveBorrowerServiceImpl.java
+package com.example.librarymanagementsystem.reactive.service.impl;
+
+import com.example.librarymanagementsystem.dto.BorrowerDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import com.example.librarymanagementsystem.reactive.entity.BorrowerRow;
+import com.example.librarymanagementsystem.reactive.repository.ReactiveBorrowerRepository;
+import com.example.librarymanagementsystem.reactive.service.ReactiveBorrowerService;
+import com.example.librarymanagementsystem.util.CursorPagination;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class ReactiveBorrowerServiceImpl implements ReactiveBorrowerService {
+
+    private final ReactiveBorrowerRepository borrowerRepository;
+
+    public ReactiveBorrowerServiceImpl(ReactiveBorrowerRepository borrowerRepository) {
+        this.borrowerRepository = borrowerRepository;
+    }
+
+    @Override
+    public Mono<CursorPageDTO<BorrowerDTO>> getBorrowers(Long after, Integer limit) {
+        int pageSize = CursorPagination.clampLimit(limit);
+        return borrowerRepository.findByIdGreaterThanOrderByIdAsc(CursorPagination.startAfter(after),
+                        CursorPagination.lookahead(pageSize))
+                .collectList()
+                .map(rows -> CursorPagination.toPage(rows, pageSize, BorrowerRow::getId, this::toDto));
+    }
+
+    @Override
+    public Flux<BorrowerDTO> streamBorrowers(Long after) {
+        return borrowerRepository.findByIdGreaterThanOrderByIdAsc(CursorPagination.startAfter(after), Pageable.unpaged())
+                .map(this::toDto);
+    }
+
+    @Override
+    public Mono<BorrowerDTO> getBorrowerById(Long borrowerId) {
+        return borrowerRepository.findById(borrowerId).map(this::toDto);
+    }
+
+    private BorrowerDTO toDto(BorrowerRow row) {
+        return new BorrowerDTO(row.getId(), row.getEmail(), row.getName());
+    }
+}
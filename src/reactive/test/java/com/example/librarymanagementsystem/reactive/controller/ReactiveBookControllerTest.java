@@ -0,0 +1,88 @@
+package com.example.librarymanagementsystem.reactive.controller;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import com.example.librarymanagementsystem.reactive.service.ReactiveBookService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@WebFluxTest(controllers = ReactiveBookController.class)
+class ReactiveBookControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveBookService bookService;
+
+    private final BookDTO firstBook = new BookDTO(1L, "1234567890", "Test Book", "Test Author", null);
+    private final BookDTO secondBook = new BookDTO(2L, "1234567890", "Test Book", "Test Author", 7L);
+
+    @Test
+    void testGetBooksPage() {
+        Mockito.when(bookService.getBooks(null, 1, null, null, null))
+                .thenReturn(Mono.just(new CursorPageDTO<>(List.of(firstBook), 1L)));
+
+        webTestClient.get().uri("/api/books?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.items[0].id").isEqualTo(1)
+                .jsonPath("$.items.length()").isEqualTo(1)
+                .jsonPath("$.nextCursor").isEqualTo(1);
+    }
+
+    @Test
+    void testGetBooksLastPageHasNoCursor() {
+        Mockito.when(bookService.getBooks(1L, null, null, null, false))
+                .thenReturn(Mono.just(new CursorPageDTO<>(List.of(secondBook), null)));
+
+        webTestClient.get().uri("/api/books?after=1&available=false")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].id").isEqualTo(2)
+                .jsonPath("$.nextCursor").isEmpty();
+    }
+
+    @Test
+    void testStreamBooksAsNdjson() {
+        Mockito.when(bookService.streamBooks(null, "Test Author", null, null)).thenReturn(Flux.just(firstBook, secondBook));
+
+        webTestClient.get().uri("/api/books?author=Test Author")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(BookDTO.class).isEqualTo(List.of(firstBook, secondBook));
+    }
+
+    @Test
+    void testGetBookDetails() {
+        Mockito.when(bookService.getBookById(1L)).thenReturn(Mono.just(firstBook));
+
+        webTestClient.get().uri("/api/books/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BookDTO.class).isEqualTo(firstBook);
+    }
+
+    @Test
+    void testGetBookDetailsNotFound() {
+        Mockito.when(bookService.getBookById(99L)).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/books/99")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
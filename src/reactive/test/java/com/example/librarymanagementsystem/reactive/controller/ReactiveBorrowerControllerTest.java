@@ -0,0 +1,62 @@
+package com.example.librarymanagementsystem.reactive.controller;
+
+import com.example.librarymanagementsystem.dto.BorrowerDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import com.example.librarymanagementsystem.reactive.service.ReactiveBorrowerService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@WebFluxTest(controllers = ReactiveBorrowerController.class)
+class ReactiveBorrowerControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveBorrowerService borrowerService;
+
+    private final BorrowerDTO borrower = new BorrowerDTO(1L, "janedoe@example.com", "Jane Doe");
+
+    @Test
+    void testGetBorrowersPage() {
+        Mockito.when(borrowerService.getBorrowers(null, 1))
+                .thenReturn(Mono.just(new CursorPageDTO<>(List.of(borrower), 1L)));
+
+        webTestClient.get().uri("/api/borrowers?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].email").isEqualTo(borrower.getEmail())
+                .jsonPath("$.nextCursor").isEqualTo(1);
+    }
+
+    @Test
+    void testStreamBorrowersAsNdjson() {
+        Mockito.when(borrowerService.streamBorrowers(null)).thenReturn(Flux.just(borrower));
+
+        webTestClient.get().uri("/api/borrowers")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(BorrowerDTO.class).isEqualTo(List.of(borrower));
+    }
+
+    @Test
+    void testGetBorrowerDetailsNotFound() {
+        Mockito.when(borrowerService.getBorrowerById(99L)).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/borrowers/99")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.librarymanagementsystem.reactive.repository;
+
+import com.example.librarymanagementsystem.reactive.entity.BookRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@DataR2dbcTest
+class ReactiveBookRepositoryTest {
+
+    @Autowired
+    private R2dbcEntityTemplate template;
+
+    @Autowired
+    private ReactiveBookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        // The schema belongs to the JPA application, so it is created by hand here
+        template.getDatabaseClient().sql("DROP TABLE IF EXISTS book").then()
+                .then(template.getDatabaseClient().sql("CREATE TABLE book (id BIGINT PRIMARY KEY,"
+                        + " isbn VARCHAR(255) NOT NULL, title VARCHAR(255) NOT NULL, author VARCHAR(255) NOT NULL,"
+                        + " borrower_id BIGINT)").then())
+                .thenMany(Flux.just(
+                        new BookRow(1L, "111", "First", "Author A", null),
+                        new BookRow(2L, "222", "Second", "Author B", 10L),
+                        new BookRow(3L, "111", "First", "Author A", null),
+                        new BookRow(4L, "333", "Third", "Author A", 11L)))
+                .concatMap(template::insert)
+                .blockLast();
+    }
+
+    // The in-memory database outlives this context
+    @AfterEach
+    void tearDown() {
+        template.getDatabaseClient().sql("DROP TABLE IF EXISTS book").then().block();
+    }
+
+    @Test
+    void testFindPageSeeksPastCursor() {
+        StepVerifier.create(bookRepository.findPage(1L, null, null, null, PageRequest.of(0, 2)).map(BookRow::getId))
+                .expectNext(2L, 3L)
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindPageAppliesOnlyPresentFilters() {
+        StepVerifier.create(bookRepository.findPage(0L, "Author A", null, true, Pageable.unpaged()).map(BookRow::getId))
+                .expectNext(1L, 3L)
+                .verifyComplete();
+        StepVerifier.create(bookRepository.findPage(0L, null, null, false, Pageable.unpaged()).map(BookRow::getBorrowerId))
+                .expectNext(10L, 11L)
+                .verifyComplete();
+        StepVerifier.create(bookRepository.findPage(1L, null, "111", null, Pageable.unpaged()).map(BookRow::getId))
+                .expectNext(3L)
+                .verifyComplete();
+    }
+}
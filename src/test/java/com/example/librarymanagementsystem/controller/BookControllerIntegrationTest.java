@@ -1,8 +1,15 @@
 package com.example.librarymanagementsystem.controller;
 
+import com.example.librarymanagementsystem.dto.BookAvailabilityDTO;
 import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.BookSearchResultDTO;
+import com.example.librarymanagementsystem.dto.BookWithBorrowerDTO;
+import com.example.librarymanagementsystem.dto.BulkItemResultDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
 import com.example.librarymanagementsystem.service.BookService;
+import com.example.librarymanagementsystem.util.BulkChunks;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,6 +18,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -24,6 +33,7 @@ import java.util.List;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(controllers = BookController.class)
+@Import(CatalogVersion.class)
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
 class BookControllerIntegrationTest {
@@ -72,16 +82,168 @@ class BookControllerIntegrationTest {
     void testGetAllBooks() throws Exception {
         // Mocking the service method to return a list of testBookDTOs when called
         List<BookDTO> bookDTOList = Collections.singletonList(testBookDTO);
-        Mockito.when(bookService.getAllBooks()).thenReturn(bookDTOList);
+        Mockito.when(bookService.getBooks(null, null, null, null, null)).thenReturn(new CursorPageDTO<>(bookDTOList, null));
 
         // Perform GET request to /api/books
         ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders.get("/api/books"));
 
         // Verify the response
         resultActions.andExpect(MockMvcResultMatchers.status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(testBookDTO.getId()))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].title").value(testBookDTO.getTitle()))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].author").value(testBookDTO.getAuthor()))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].isbn").value(testBookDTO.getIsbn()));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].id").value(testBookDTO.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].title").value(testBookDTO.getTitle()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].author").value(testBookDTO.getAuthor()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].isbn").value(testBookDTO.getIsbn()));
+    }
+
+    @Test
+    void testGetBooksPage() throws Exception {
+        // Mocking the service method to return a page with a following cursor
+        List<BookDTO> bookDTOList = Collections.singletonList(testBookDTO);
+        Mockito.when(bookService.getBooks(0L, 1, "John Doe", null, true)).thenReturn(new CursorPageDTO<>(bookDTOList, 1L));
+
+        // Perform GET request to /api/books with paging and filter parameters
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders.get("/api/books")
+                .param("after", "0")
+                .param("limit", "1")
+                .param("author", "John Doe")
+                .param("available", "true"));
+
+        // Verify the response
+        resultActions.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].id").value(testBookDTO.getId()));
+    }
+
+    @Test
+    void testRegisterBooksBulk() throws Exception {
+        // Mocking the service to accept the first entry and reject the second
+        Mockito.when(bookService.registerBooks(Mockito.anyList())).thenReturn(List.of(
+                BulkItemResultDTO.created(0, 1L),
+                BulkItemResultDTO.rejected(1, "ISBN, title and author are required")));
+
+        // Perform POST request to /api/books/bulk with a JSON array
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders.post("/api/books/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(testBookDTO, new BookDTO()))));
+
+        // Verify the response
+        resultActions.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value("CREATED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value("REJECTED"));
+    }
+
+    @Test
+    void testRegisterBooksBulkStreamOffsetsChunkIndexes() throws Exception {
+        // Mocking the service to accept every entry of each chunk
+        Mockito.when(bookService.registerBooks(Mockito.anyList())).thenAnswer(invocation -> {
+            List<BookDTO> chunk = invocation.getArgument(0);
+            return java.util.stream.IntStream.range(0, chunk.size())
+                    .mapToObj(i -> BulkItemResultDTO.created(i, (long) i))
+                    .toList();
+        });
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < BulkChunks.CHUNK_SIZE + 1; i++) {
+            body.append(objectMapper.writeValueAsString(testBookDTO)).append('\n');
+        }
+
+        // Perform POST request to /api/books/bulk with newline-delimited JSON spanning two chunks
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders.post("/api/books/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body.toString()));
+
+        // Verify the response
+        resultActions.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(BulkChunks.CHUNK_SIZE + 1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[" + BulkChunks.CHUNK_SIZE + "].index")
+                        .value(BulkChunks.CHUNK_SIZE));
+        Mockito.verify(bookService, Mockito.times(2)).registerBooks(Mockito.anyList());
+    }
+
+    @Test
+    void testGetBookDetailsNotModified() throws Exception {
+        Mockito.when(bookService.getBookById(1L)).thenReturn(testBookDTO);
+
+        // First read returns the body with a strong ETag
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/api/books/1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Polling with that ETag is answered with 304 without calling the service
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/books/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        Mockito.verify(bookService, Mockito.times(1)).getBookById(1L);
+    }
+
+    @Test
+    void testRegisterBookChangesETag() throws Exception {
+        Mockito.when(bookService.getBooks(null, null, null, null, null))
+                .thenReturn(new CursorPageDTO<>(List.of(testBookDTO), null));
+        Mockito.when(bookService.registerBook(Mockito.any(BookDTO.class))).thenReturn(testBookDTO);
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/api/books"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // A committed registration invalidates every outstanding tag
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testBookDTO)))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/books").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, Matchers.not(etag)));
+    }
+
+    @Test
+    void testSearchBooks() throws Exception {
+        Mockito.when(bookService.searchBooks("test boo", 5))
+                .thenReturn(List.of(new BookSearchResultDTO("1234567890", "Test Book", "Test Author", 3, 1)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/books/search").param("q", "test boo").param("limit", "5"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].isbn").value("1234567890"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].copies").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].availableCopies").value(1));
+    }
+
+    @Test
+    void testGetAvailability() throws Exception {
+        Mockito.when(bookService.getAvailability("1234567890")).thenReturn(new BookAvailabilityDTO("1234567890", 3, 1));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/books/availability/1234567890"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.copies").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.availableCopies").value(1));
+    }
+
+    @Test
+    void testGetAvailabilityOfManyIsbns() throws Exception {
+        Mockito.when(bookService.getAvailability(List.of("1234567890", "0000000000"))).thenReturn(List.of(
+                new BookAvailabilityDTO("1234567890", 3, 1), new BookAvailabilityDTO("0000000000", 0, 0)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/books/availability").param("isbns", "1234567890,0000000000"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].availableCopies").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].copies").value(0));
+    }
+
+    @Test
+    void testGetBooksWithBorrowers() throws Exception {
+        Mockito.when(bookService.getBooksWithBorrowers(null, null, null, null, false)).thenReturn(new CursorPageDTO<>(
+                List.of(new BookWithBorrowerDTO(1L, "1234567890", "Test Book", "Test Author", 2L, "Jane Doe",
+                        "janedoe@example.com")), null));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/books").param("available", "false")
+                        .param("includeBorrower", "true"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].borrowerId").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].borrowerName").value("Jane Doe"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].borrowerEmail").value("janedoe@example.com"));
+        Mockito.verify(bookService, Mockito.never()).getBooks(Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any());
     }
 }
@@ -1,20 +1,27 @@
 package com.example.librarymanagementsystem.controller;
 
 import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
 import com.example.librarymanagementsystem.service.BookService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
@@ -23,6 +30,10 @@ class BookControllerTest {
 
     @Mock
     private BookService bookService;
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion(Duration.ofSeconds(30));
+
+    private final WebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest());
 
     @InjectMocks
     private BookController bookController;
@@ -51,13 +62,33 @@ class BookControllerTest {
     void testGetAllBooks() {
         // Mocking behavior of BookService
         List<BookDTO> mockBooks = Collections.singletonList(mockBookDTO);
-        when(bookService.getAllBooks()).thenReturn(mockBooks);
+        CursorPageDTO<BookDTO> page = new CursorPageDTO<>(mockBooks, null);
+        when(bookService.getBooks(null, null, null, null, null)).thenReturn(page);
+
+        // Call the controller method
+        ResponseEntity<CursorPageDTO<? extends BookDTO>> responseEntity =
+                bookController.getAllBooks(null, null, null, null, null, false, webRequest);
+
+        // Assertions
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(page, responseEntity.getBody());
+        assertNull(responseEntity.getBody().getNextCursor());
+    }
+
+    @Test
+    void testGetAllBooksWithNextCursor() {
+        // Mocking behavior of BookService
+        List<BookDTO> mockBooks = Collections.singletonList(mockBookDTO);
+        CursorPageDTO<BookDTO> page = new CursorPageDTO<>(mockBooks, 1L);
+        when(bookService.getBooks(null, 1, null, null, true)).thenReturn(page);
 
         // Call the controller method
-        ResponseEntity<List<BookDTO>> responseEntity = bookController.getAllBooks();
+        ResponseEntity<CursorPageDTO<? extends BookDTO>> responseEntity =
+                bookController.getAllBooks(null, 1, null, null, true, false, webRequest);
 
         // Assertions
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
-        assertEquals(mockBooks, responseEntity.getBody());
+        assertEquals(page, responseEntity.getBody());
+        assertEquals(1L, responseEntity.getBody().getNextCursor());
     }
 }
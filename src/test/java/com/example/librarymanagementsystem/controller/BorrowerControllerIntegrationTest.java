@@ -1,6 +1,11 @@
 package com.example.librarymanagementsystem.controller;
 
+import com.example.librarymanagementsystem.dto.BookDTO;
 import com.example.librarymanagementsystem.dto.BorrowerDTO;
+import com.example.librarymanagementsystem.dto.BulkItemResultDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import com.example.librarymanagementsystem.dto.LoanEventDTO;
+import com.example.librarymanagementsystem.entity.LoanEventType;
 import com.example.librarymanagementsystem.service.BorrowerService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,11 +24,14 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(controllers = BorrowerController.class)
+@Import(CatalogVersion.class)
 @AutoConfigureMockMvc
 class BorrowerControllerIntegrationTest {
 
@@ -76,6 +85,19 @@ class BorrowerControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.content().string("Book borrowed successfully"));
     }
 
+    @Test
+    void testBorrowAvailableCopy() throws Exception {
+        // Mocking the service to hand out copy 42 of the ISBN
+        Mockito.when(borrowerService.borrowAvailableCopy(1L, "1234567890")).thenReturn(42L);
+
+        // Perform POST request to /api/borrowers/{borrowerId}/borrow/isbn/{isbn}
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders.post("/api/borrowers/1/borrow/isbn/1234567890"));
+
+        // Verify the response carries the id of the copy that was lent
+        resultActions.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("42"));
+    }
+
     @Test
     void testReturnBook() throws Exception {
         // Mocking the service method to perform the return operation
@@ -93,15 +115,71 @@ class BorrowerControllerIntegrationTest {
     void testGetAllBorrowers() throws Exception {
         // Mocking the service method to return a list of testBorrowerDTOs when called
         List<BorrowerDTO> borrowerDTOList = Collections.singletonList(testBorrowerDTO);
-        Mockito.when(borrowerService.getAllBorrowers()).thenReturn(borrowerDTOList);
+        Mockito.when(borrowerService.getBorrowers(null, null)).thenReturn(new CursorPageDTO<>(borrowerDTOList, null));
 
         // Perform GET request to /api/borrowers
         ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders.get("/api/borrowers"));
 
         // Verify the response
         resultActions.andExpect(MockMvcResultMatchers.status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(testBorrowerDTO.getId()))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value(testBorrowerDTO.getName()))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].email").value(testBorrowerDTO.getEmail()));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].id").value(testBorrowerDTO.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].name").value(testBorrowerDTO.getName()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].email").value(testBorrowerDTO.getEmail()));
+    }
+
+    @Test
+    void testRegisterBorrowersBulk() throws Exception {
+        // Mocking the service to accept the first entry and reject the duplicate
+        Mockito.when(borrowerService.registerBorrowers(Mockito.anyList())).thenReturn(List.of(
+                BulkItemResultDTO.created(0, 1L),
+                BulkItemResultDTO.rejected(1, "Email appears earlier in this batch")));
+
+        // Perform POST request to /api/borrowers/bulk with one borrower per line
+        String body = objectMapper.writeValueAsString(testBorrowerDTO) + "\n"
+                + objectMapper.writeValueAsString(testBorrowerDTO) + "\n";
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders.post("/api/borrowers/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body));
+
+        // Verify the response
+        resultActions.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value("CREATED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value("REJECTED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].error").value("Email appears earlier in this batch"));
+    }
+
+    @Test
+    void testGetBorrowedBooks() throws Exception {
+        Mockito.when(borrowerService.getBorrowedBooks(1L))
+                .thenReturn(List.of(new BookDTO(7L, "1234567890", "Test Book", "Test Author", 1L)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/borrowers/1/books"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(7))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].borrowerId").value(1));
+    }
+
+    @Test
+    void testGetBorrowedBooksOfManyBorrowers() throws Exception {
+        Mockito.when(borrowerService.getBorrowedBooks(List.of(1L, 2L))).thenReturn(Map.of(
+                1L, List.of(new BookDTO(7L, "1234567890", "Test Book", "Test Author", 1L)),
+                2L, List.of()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/borrowers/books").param("ids", "1,2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.1[0].id").value(7))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.2").isEmpty());
+    }
+
+    @Test
+    void testGetLoanHistory() throws Exception {
+        LoanEventDTO borrowed = new LoanEventDTO(10L, 7L, 1L, LoanEventType.BORROW, Instant.parse("2024-01-01T10:00:00Z"));
+        Mockito.when(borrowerService.getLoanHistory(1L, null, 1)).thenReturn(new CursorPageDTO<>(List.of(borrowed), 10L));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/borrowers/1/history").param("limit", "1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value(10))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].type").value("BORROW"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].occurredAt").value("2024-01-01T10:00:00Z"));
     }
 }
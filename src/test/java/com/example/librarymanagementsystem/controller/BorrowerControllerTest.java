@@ -1,16 +1,22 @@
 package com.example.librarymanagementsystem.controller;
 
 import com.example.librarymanagementsystem.dto.BorrowerDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
 import com.example.librarymanagementsystem.service.BorrowerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 
@@ -24,6 +30,10 @@ class BorrowerControllerTest {
 
     @Mock
     private BorrowerService borrowerService;
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion(Duration.ofSeconds(30));
+
+    private final WebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest());
 
     @InjectMocks
     private BorrowerController borrowerController;
@@ -84,14 +94,15 @@ class BorrowerControllerTest {
     void testGetAllBorrowers() {
         // Mocking behavior of BorrowerService
         List<BorrowerDTO> mockBorrowers = Collections.singletonList(mockBorrowerDTO);
-        when(borrowerService.getAllBorrowers()).thenReturn(mockBorrowers);
+        CursorPageDTO<BorrowerDTO> page = new CursorPageDTO<>(mockBorrowers, null);
+        when(borrowerService.getBorrowers(null, null)).thenReturn(page);
 
         // Call the controller method
-        ResponseEntity<List<BorrowerDTO>> responseEntity = borrowerController.getAllBorrowers();
+        ResponseEntity<CursorPageDTO<BorrowerDTO>> responseEntity = borrowerController.getAllBorrowers(null, null, webRequest);
 
         // Assertions
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
-        assertEquals(mockBorrowers, responseEntity.getBody());
+        assertEquals(page, responseEntity.getBody());
     }
 
 
@@ -0,0 +1,49 @@
+package com.example.librarymanagementsystem.controller;
+
+import com.example.librarymanagementsystem.config.ChangeFeedProperties;
+import com.example.librarymanagementsystem.service.impl.ChangeFeed;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebMvcTest(controllers = ChangeFeedController.class)
+@Import(ChangeFeedProperties.class)
+class ChangeFeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeFeed changeFeed;
+
+    @Test
+    void testSubscribeResumesFromLastEventId() throws Exception {
+        when(changeFeed.subscribe(any(), eq("k3x9p1z-42"))).thenReturn(true);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "k3x9p1z-42"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+
+        verify(changeFeed).subscribe(any(), eq("k3x9p1z-42"));
+    }
+
+    @Test
+    void testSubscribeRefusedAtLimit() throws Exception {
+        when(changeFeed.subscribe(any(), any())).thenReturn(false);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable());
+    }
+}
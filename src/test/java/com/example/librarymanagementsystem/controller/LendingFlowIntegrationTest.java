@@ -0,0 +1,100 @@
+package com.example.librarymanagementsystem.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk import, check-out, check-in and export through the real services, repositories and migrated H2 schema.
+ * Nothing is mocked. Responses are read as JSON trees rather than bound to DTOs.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LendingFlowIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testImportBorrowReturnAndExport() throws Exception {
+        // Import a borrower as NDJSON and two copies of one ISBN as a JSON array
+        JsonNode borrowers = post("/api/borrowers/bulk", MediaType.APPLICATION_NDJSON,
+                "{\"name\":\"Ada Lending\",\"email\":\"ada.lending@example.com\"}\n");
+        JsonNode books = post("/api/books/bulk", MediaType.APPLICATION_JSON,
+                "[{\"isbn\":\"9780000000017\",\"title\":\"Lending Flow\",\"author\":\"Test Author\"},"
+                        + "{\"isbn\":\"9780000000017\",\"title\":\"Lending Flow\",\"author\":\"Test Author\"}]");
+        assertEquals("CREATED", borrowers.get(0).get("status").asText());
+        assertEquals("CREATED", books.get(0).get("status").asText());
+        assertEquals("CREATED", books.get(1).get("status").asText());
+        long borrowerId = borrowers.get(0).get("id").asLong();
+        long bookId = books.get(0).get("id").asLong();
+
+        // Check out one copy
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/borrowers/{borrowerId}/borrow/{bookId}", borrowerId, bookId))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        assertEquals(1, availableCopies("9780000000017"));
+        JsonNode borrowed = get("/api/borrowers/" + borrowerId + "/books");
+        assertEquals(1, borrowed.size());
+        assertEquals(bookId, borrowed.get(0).get("id").asLong());
+
+        // Check it back in
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/borrowers/{borrowerId}/return/{bookId}", borrowerId, bookId))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        assertEquals(2, availableCopies("9780000000017"));
+        assertEquals(0, get("/api/borrowers/" + borrowerId + "/books").size());
+
+        // Export the catalog; the body is streamed asynchronously
+        MvcResult export = mockMvc.perform(MockMvcRequestBuilders.get("/api/export/books"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(export))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+        long exported = body.lines()
+                .map(this::readTree)
+                .filter(line -> line.get("isbn").asText().equals("9780000000017"))
+                .peek(line -> assertTrue(line.get("borrowerId").isNull()))
+                .count();
+        assertEquals(2, exported);
+    }
+
+    private int availableCopies(String isbn) throws Exception {
+        return get("/api/books/availability/" + isbn).get("availableCopies").asInt();
+    }
+
+    private JsonNode post(String path, MediaType contentType, String content) throws Exception {
+        return readTree(mockMvc.perform(MockMvcRequestBuilders.post(path).contentType(contentType).content(content))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private JsonNode get(String path) throws Exception {
+        return readTree(mockMvc.perform(MockMvcRequestBuilders.get(path))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Not JSON: " + json, e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.librarymanagementsystem.instrumentation;
+
+import com.example.librarymanagementsystem.exception.BookAlreadyBorrowedException;
+import com.example.librarymanagementsystem.exception.ResourceNotFoundException;
+import com.example.librarymanagementsystem.service.impl.AvailabilityCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DomainExceptionMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testCountersRegisteredAtZero() {
+        new DomainExceptionMetrics(registry);
+
+        assertEquals(4, registry.find(DomainExceptionMetrics.METER_NAME).counters().size());
+        assertEquals(0.0, count("BookNotBorrowedException"));
+    }
+
+    @Test
+    void testDomainExceptionsAreCountedByType() {
+        DomainExceptionMetrics metrics = new DomainExceptionMetrics(registry);
+
+        metrics.count(new BookAlreadyBorrowedException("Book is already borrowed"));
+        metrics.count(new BookAlreadyBorrowedException("Book is already borrowed"));
+        metrics.count(new ResourceNotFoundException("Book not found"));
+        metrics.count(new IllegalStateException("not a domain exception"));
+
+        assertEquals(2.0, count("BookAlreadyBorrowedException"));
+        assertEquals(1.0, count("ResourceNotFoundException"));
+        assertEquals(0.0, count("DuplicateBorrowerEmailException"));
+    }
+
+    @Test
+    void testBooksOnLoanGauge() {
+        AvailabilityCounters availabilityCounters = mock(AvailabilityCounters.class);
+        when(availabilityCounters.onLoan()).thenReturn(3L);
+
+        new LendingMetrics(availabilityCounters).bindTo(registry);
+
+        assertEquals(3.0, registry.get("library.books.on.loan").gauge().value());
+    }
+
+    private double count(String exception) {
+        return registry.get(DomainExceptionMetrics.METER_NAME).tag("exception", exception).counter().count();
+    }
+}
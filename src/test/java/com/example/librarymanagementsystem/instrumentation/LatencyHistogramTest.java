@@ -0,0 +1,78 @@
+package com.example.librarymanagementsystem.instrumentation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.percentile(0.99));
+    }
+
+    @Test
+    void testPercentilesWithinBucketPrecision() {
+        // Given 1..10000 microseconds recorded once each
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        // Then every percentile is within the ~3% sub-bucket resolution
+        assertEquals(10_000, histogram.getCount());
+        assertWithin(TimeUnit.MICROSECONDS.toNanos(5_000), histogram.percentile(0.50));
+        assertWithin(TimeUnit.MICROSECONDS.toNanos(9_900), histogram.percentile(0.99));
+        assertWithin(TimeUnit.MICROSECONDS.toNanos(9_990), histogram.percentile(0.999));
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(10_000), histogram.getMax());
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(17);
+
+        assertEquals(3, histogram.percentile(0.5));
+        assertEquals(17, histogram.percentile(1.0));
+    }
+
+    @Test
+    void testBucketBoundsCoverEveryValue() {
+        for (long value : new long[]{0, 31, 32, 63, 64, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.upperBoundOf(index) >= value, "upper bound below " + value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.upperBoundOf(index - 1) < value, "previous bucket covers " + value);
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentRecordingLosesNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 25_000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100_000, histogram.getCount());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertEquals(expected, actual, expected * 0.035);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.librarymanagementsystem.instrumentation;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MeteredAsyncAppenderTest {
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    private final CountDownLatch delivering = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private MeteredAsyncAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        // A downstream appender that blocks until released, so the queue fills up deterministically
+        AppenderBase<ILoggingEvent> blocking = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                delivering.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        blocking.setContext(context);
+        blocking.start();
+
+        appender = new MeteredAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(4);
+        appender.addAppender(blocking);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.getLogger(Logger.ROOT_LOGGER_NAME).detachAppender(appender);
+        release.countDown();
+        appender.stop();
+    }
+
+    @Test
+    void testInfoEventsAreDiscardedBelowThreshold() throws InterruptedException {
+        appender.setDiscardingThreshold(2);
+        appender.setNeverBlock(true);
+        appender.start();
+        parkWorker(Level.INFO);
+
+        for (int i = 0; i < 19; i++) {
+            appender.doAppend(event(Level.INFO));
+        }
+
+        // INFO events stop being queued once fewer free slots than the threshold remain
+        assertEquals(3, appender.getNumberOfElementsInQueue());
+        assertEquals(16, appender.getDiscardedCount());
+        assertEquals(0, appender.getDroppedCount());
+    }
+
+    @Test
+    void testFullQueueDropsWhenNeverBlock() throws InterruptedException {
+        appender.setDiscardingThreshold(0);
+        appender.setNeverBlock(true);
+        appender.start();
+        parkWorker(Level.WARN);
+
+        for (int i = 0; i < 19; i++) {
+            appender.doAppend(event(Level.WARN));
+        }
+
+        assertEquals(0, appender.getDiscardedCount());
+        // WARN events are never discarded, but the full queue drops them instead of blocking
+        assertEquals(4, appender.getNumberOfElementsInQueue());
+        assertEquals(15, appender.getDroppedCount());
+    }
+
+    @Test
+    void testLossCountsArePublishedAsMeters() throws InterruptedException {
+        appender.setName("ASYNC_TEST");
+        appender.setDiscardingThreshold(0);
+        appender.setNeverBlock(true);
+        appender.start();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(appender);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new LoggingPipelineStats().bindTo(registry);
+        parkWorker(Level.WARN);
+
+        for (int i = 0; i < 19; i++) {
+            appender.doAppend(event(Level.WARN));
+        }
+
+        assertEquals(4.0, registry.get("library.logging.queue.depth").tag("appender", "ASYNC_TEST").gauge().value());
+        assertEquals(4.0, registry.get("library.logging.queue.capacity").tag("appender", "ASYNC_TEST").gauge().value());
+        assertEquals(appender.getDroppedCount(),
+                registry.get("library.logging.events.dropped").tag("appender", "ASYNC_TEST").functionCounter().count());
+        assertEquals(0.0,
+                registry.get("library.logging.events.discarded").tag("appender", "ASYNC_TEST").functionCounter().count());
+    }
+
+    // The worker drains the whole queue each time it wakes, so the counts are only exact once it is stuck on one event
+    private void parkWorker(Level level) throws InterruptedException {
+        appender.doAppend(event(level));
+        assertTrue(delivering.await(5, TimeUnit.SECONDS));
+    }
+
+    private LoggingEvent event(Level level) {
+        return new LoggingEvent(getClass().getName(), context.getLogger("test"), level, "message", null, null);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.librarymanagementsystem.instrumentation;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadFormatterTest {
+
+    @Test
+    void testShortValueIsUnchanged() {
+        assertEquals("hello", PayloadFormatter.format("hello", 256));
+    }
+
+    @Test
+    void testLongValueIsTruncated() {
+        assertEquals("abcde...", PayloadFormatter.format("abcdefghij", 5));
+    }
+
+    @Test
+    void testLargeCollectionIsNotFullyRendered() {
+        List<Integer> values = Collections.nCopies(1_000_000, 7);
+
+        String formatted = PayloadFormatter.format(values, 32);
+
+        assertTrue(formatted.startsWith("[size=1000000] 7 7"));
+        assertTrue(formatted.endsWith(" ..."));
+        assertTrue(formatted.length() < 64);
+    }
+
+    @Test
+    void testArgumentArray() {
+        assertEquals("[size=2] 1 null", PayloadFormatter.format(new Object[]{1L, null}, 256));
+    }
+
+    @Test
+    void testObjectIsShownByTypeAndIdWithoutToString() {
+        BookDTO book = new BookDTO();
+        book.setId(42L);
+        book.setTitle("x".repeat(10_000));
+
+        assertEquals("BookDTO#42", PayloadFormatter.format(book, 256));
+    }
+
+    @Test
+    void testResponseBodyAndMapAreDescribed() {
+        assertEquals("[size=1] {size=2}",
+                PayloadFormatter.format(ResponseEntity.ok(List.of(Map.of("a", 1, "b", 2))), 256));
+    }
+}
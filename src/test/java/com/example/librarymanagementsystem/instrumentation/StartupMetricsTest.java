@@ -0,0 +1,43 @@
+package com.example.librarymanagementsystem.instrumentation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private double firstRequestMillis() {
+        return registry.get("library.startup.first.request").timeGauge().value(TimeUnit.MILLISECONDS);
+    }
+
+    private static ServletRequestHandledEvent request(String url) {
+        return new ServletRequestHandledEvent(new Object(), url, "127.0.0.1", "GET", "dispatcherServlet", null, null, 5);
+    }
+
+    @Test
+    void testGaugeIsEmptyUntilTheFirstRequest() {
+        new StartupMetrics().bindTo(registry);
+
+        assertTrue(Double.isNaN(firstRequestMillis()));
+    }
+
+    @Test
+    void testOnlyTheFirstRequestIsRecorded() throws InterruptedException {
+        StartupMetrics metrics = new StartupMetrics();
+        metrics.bindTo(registry);
+
+        metrics.onApplicationEvent(request("/actuator/health"));
+        double first = firstRequestMillis();
+        Thread.sleep(20);
+        metrics.onApplicationEvent(request("/api/books"));
+
+        assertTrue(first > 0);
+        assertEquals(first, firstRequestMillis());
+    }
+}
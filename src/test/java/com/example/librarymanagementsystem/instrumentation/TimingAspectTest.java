@@ -0,0 +1,64 @@
+package com.example.librarymanagementsystem.instrumentation;
+
+import com.example.librarymanagementsystem.controller.BookController;
+import com.example.librarymanagementsystem.controller.CatalogVersion;
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.service.impl.AvailabilityIndex;
+import com.example.librarymanagementsystem.service.impl.BookServiceImpl;
+import com.example.librarymanagementsystem.service.impl.ChangeFeed;
+import com.example.librarymanagementsystem.service.impl.LoanEventLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.AopUtils;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingAspectTest {
+
+    @Test
+    void testControllersAndServicesAreAdvised() {
+        assertTrue(advises(BookController.class));
+        assertTrue(advises(BookServiceImpl.class));
+    }
+
+    @Test
+    void testServiceHelpersAreNotAdvised() {
+        assertFalse(advises(AvailabilityIndex.class));
+        assertFalse(advises(ChangeFeed.class));
+        assertFalse(advises(LoanEventLog.class));
+        assertFalse(advises(CatalogVersion.class));
+    }
+
+    @Test
+    void testMicrometerTimedMethodsAreNotTimedAgain() throws Exception {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(TimingAspect.BOUNDARIES);
+
+        Method timed = BookServiceImpl.class.getMethod("registerBook", BookDTO.class);
+        Method untimed = BookServiceImpl.class.getMethod("getBooks", Long.class, Integer.class, String.class,
+                String.class, Boolean.class);
+
+        assertFalse(pointcut.matches(timed, BookServiceImpl.class));
+        assertTrue(pointcut.matches(untimed, BookServiceImpl.class));
+    }
+
+    @Test
+    void testExceptionCountingOnlyAdvisesServices() {
+        assertTrue(advises(DomainExceptionMetrics.SERVICES, BookServiceImpl.class));
+        assertFalse(advises(DomainExceptionMetrics.SERVICES, AvailabilityIndex.class));
+        assertFalse(advises(DomainExceptionMetrics.SERVICES, ChangeFeed.class));
+    }
+
+    static boolean advises(Class<?> type) {
+        return advises(TimingAspect.BOUNDARIES, type);
+    }
+
+    // Whether the pointcut matches any method of the type, and so whether Spring would proxy its beans
+    static boolean advises(String expression, Class<?> type) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(expression);
+        return AopUtils.canApply(pointcut, type);
+    }
+}
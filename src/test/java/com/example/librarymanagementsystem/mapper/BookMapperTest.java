@@ -0,0 +1,52 @@
+package com.example.librarymanagementsystem.mapper;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.entity.Book;
+import com.example.librarymanagementsystem.entity.Borrower;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookMapperTest {
+
+    private final BookMapper bookMapper = new BookMapper();
+
+    @Test
+    void testToDtoCopiesBorrowerId() {
+        // Given
+        Book book = new Book(1L, "1234567890", "Test Book", "Test Author", new Borrower(5L, "test@example.com", "Test Borrower"));
+
+        // When
+        BookDTO bookDTO = bookMapper.toDto(book);
+
+        // Then
+        assertEquals(new BookDTO(1L, "1234567890", "Test Book", "Test Author", 5L), bookDTO);
+    }
+
+    @Test
+    void testToDtoWithoutBorrower() {
+        // Given
+        Book book = new Book(1L, "1234567890", "Test Book", "Test Author", null);
+
+        // When
+        BookDTO bookDTO = bookMapper.toDto(book);
+
+        // Then
+        assertNull(bookDTO.getBorrowerId());
+    }
+
+    @Test
+    void testToEntityLeavesBorrowerUnset() {
+        // Given
+        BookDTO bookDTO = new BookDTO(null, "1234567890", "Test Book", "Test Author", 5L);
+
+        // When
+        Book book = bookMapper.toEntity(bookDTO);
+
+        // Then
+        assertEquals("1234567890", book.getIsbn());
+        assertEquals("Test Book", book.getTitle());
+        assertEquals("Test Author", book.getAuthor());
+        assertNull(book.getBorrower());
+    }
+}
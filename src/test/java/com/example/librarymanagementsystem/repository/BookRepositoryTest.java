@@ -0,0 +1,122 @@
+package com.example.librarymanagementsystem.repository;
+
+import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.BookWithBorrowerDTO;
+import com.example.librarymanagementsystem.entity.Book;
+import com.example.librarymanagementsystem.entity.Borrower;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Statistics count the statements a query issues
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private Borrower borrower;
+    private Borrower anotherBorrower;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        borrower = entityManager.persist(new Borrower(null, "jane.doe@example.com", "Jane Doe"));
+        anotherBorrower = entityManager.persist(new Borrower(null, "john.doe@example.com", "John Doe"));
+        book = entityManager.persist(new Book(null, "1234567890", "Test Book", "Test Author", null));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testCheckOutClaimsAvailableCopyOnce() {
+        assertEquals(1, bookRepository.checkOut(book.getId(), borrower.getId()));
+        // A second checkout of the same copy, even by another borrower, matches no row
+        assertEquals(0, bookRepository.checkOut(book.getId(), anotherBorrower.getId()));
+
+        entityManager.clear();
+        assertEquals(borrower.getId(), entityManager.find(Book.class, book.getId()).getBorrower().getId());
+    }
+
+    @Test
+    void testCheckOutRequiresExistingBorrower() {
+        assertEquals(0, bookRepository.checkOut(book.getId(), -1L));
+
+        entityManager.clear();
+        assertNull(entityManager.find(Book.class, book.getId()).getBorrower());
+    }
+
+    @Test
+    void testCheckInOnlyByCurrentBorrower() {
+        bookRepository.checkOut(book.getId(), borrower.getId());
+
+        assertEquals(0, bookRepository.checkIn(book.getId(), anotherBorrower.getId()));
+        assertEquals(1, bookRepository.checkIn(book.getId(), borrower.getId()));
+        assertEquals(0, bookRepository.checkIn(book.getId(), borrower.getId()));
+
+        entityManager.clear();
+        assertNull(entityManager.find(Book.class, book.getId()).getBorrower());
+    }
+
+    @Test
+    void testFindLoansByBorrower() {
+        Book secondCopy = entityManager.persist(new Book(null, "1234567890", "Test Book", "Test Author", null));
+        entityManager.persist(new Book(null, "0987654321", "Other Book", "Other Author", null));
+        bookRepository.checkOut(book.getId(), borrower.getId());
+        bookRepository.checkOut(secondCopy.getId(), borrower.getId());
+
+        assertEquals(List.of(book.getId(), secondCopy.getId()),
+                bookRepository.findLoans(borrower.getId()).stream().map(BookDTO::getId).toList());
+        assertEquals(List.of(), bookRepository.findLoans(anotherBorrower.getId()));
+        assertEquals(List.of(borrower.getId(), borrower.getId()),
+                bookRepository.findLoans(List.of(borrower.getId(), anotherBorrower.getId())).stream()
+                        .map(BookDTO::getBorrowerId).toList());
+    }
+
+    @Test
+    void testFindPageAppliesOnlyPresentFilters() {
+        Book secondCopy = entityManager.persist(new Book(null, "1234567890", "Test Book", "Test Author", null));
+        Book other = entityManager.persist(new Book(null, "0987654321", "Other Book", "Other Author", null));
+        bookRepository.checkOut(secondCopy.getId(), borrower.getId());
+
+        assertEquals(List.of(book.getId(), secondCopy.getId(), other.getId()),
+                bookRepository.findPage(0L, null, null, null, PageRequest.of(0, 10)).stream().map(Book::getId).toList());
+        assertEquals(List.of(book.getId()),
+                bookRepository.findPage(0L, "Test Author", null, true, PageRequest.of(0, 10)).stream().map(Book::getId).toList());
+        assertEquals(List.of(secondCopy.getId()),
+                bookRepository.findPage(book.getId(), null, "1234567890", null, PageRequest.of(0, 10)).stream().map(Book::getId).toList());
+        assertEquals(List.of(secondCopy.getId()),
+                bookRepository.findPage(0L, null, null, false, PageRequest.of(0, 10)).stream().map(Book::getId).toList());
+    }
+
+    @Test
+    void testFindPageWithBorrowersUsesOneStatement() {
+        Book secondCopy = entityManager.persist(new Book(null, "1234567890", "Test Book", "Test Author", null));
+        bookRepository.checkOut(book.getId(), borrower.getId());
+        bookRepository.checkOut(secondCopy.getId(), anotherBorrower.getId());
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookWithBorrowerDTO> page = bookRepository.findPageWithBorrowers(0L, null, null, false, PageRequest.of(0, 10));
+
+        assertEquals(2, page.size());
+        assertEquals("Jane Doe", page.get(0).getBorrowerName());
+        assertEquals("john.doe@example.com", page.get(1).getBorrowerEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.librarymanagementsystem.repository;
+
+import com.example.librarymanagementsystem.entity.Book;
+import com.example.librarymanagementsystem.entity.Borrower;
+import com.example.librarymanagementsystem.entity.LoanEvent;
+import com.example.librarymanagementsystem.entity.LoanEventType;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Method;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every query method declared on the repositories against the migrated schema and fails when H2's plan for it
+ * reads a table without an index that narrows the rows. A new repository method needs a case here, and usually an
+ * index in a new migration.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.librarymanagementsystem.repository.QueryIndexCoverageTest$CapturedStatements"})
+class QueryIndexCoverageTest {
+
+    private static final String REPOSITORY_PACKAGE = BookRepository.class.getPackageName();
+    // How H2's EXPLAIN shows each table it reads: "PUBLIC"."BOOK" "B1_0" /* PUBLIC.IDX_BOOK_AUTHOR: AUTHOR = ?2 */
+    private static final Pattern TABLE_ACCESS =
+            Pattern.compile("\"PUBLIC\"\\.\"(\\w+)\" \"(\\w+)\"\\s*/\\* PUBLIC\\.([\\w.]+)(?:: (.*?))? \\*/", Pattern.DOTALL);
+
+    // Queries that read every row by design, with the reason
+    private static final Map<String, String> FULL_SCANS_ALLOWED = Map.of();
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApplicationContext applicationContext;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BorrowerRepository borrowerRepository;
+    @Autowired
+    private LoanEventRepository loanEventRepository;
+
+    @Test
+    void testEveryRepositoryQueryHasACase() {
+        Map<String, Runnable> cases = cases(1L);
+        Set<String> missing = declaredQueryMethods().stream()
+                .filter(method -> !cases.containsKey(method))
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        assertTrue(missing.isEmpty(), "No index check for " + missing);
+    }
+
+    @Test
+    void testEveryRepositoryQueryUsesAnIndex() throws Exception {
+        Long borrowerId = seed();
+        List<String> unindexed = new ArrayList<>();
+        for (Map.Entry<String, Runnable> entry : new TreeMap<>(cases(borrowerId)).entrySet()) {
+            CapturedStatements.STATEMENTS.clear();
+            entry.getValue().run();
+            entityManager.flush();
+            assertFalse(CapturedStatements.STATEMENTS.isEmpty(), entry.getKey() + " ran no SQL");
+            if (FULL_SCANS_ALLOWED.containsKey(entry.getKey())) {
+                continue;
+            }
+            for (String sql : CapturedStatements.STATEMENTS) {
+                String plan = explain(sql);
+                for (String problem : unindexedAccesses(plan)) {
+                    unindexed.add(entry.getKey() + ": " + problem + "\n    " + plan.replaceAll("\\s+", " "));
+                }
+            }
+        }
+
+        assertTrue(unindexed.isEmpty(), "Queries without a supporting index:\n" + String.join("\n", unindexed));
+    }
+
+    // Enough rows, with statistics, that the planner's costs favour an index wherever one applies. ANALYZE commits,
+    // so the rows outlive the test in this context's own embedded database
+    private Long seed() {
+        List<Borrower> borrowers = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            borrowers.add(entityManager.persist(new Borrower(null, "reader" + i + "@example.com", "Reader " + i)));
+        }
+        for (int i = 0; i < 500; i++) {
+            entityManager.persist(new Book(null, "isbn-" + i % 100, "Title " + i % 100, "Author " + i % 40,
+                    i % 5 == 0 ? borrowers.get(i % 50) : null));
+        }
+        for (int i = 0; i < 500; i++) {
+            entityManager.persist(new LoanEvent(null, (long) i, borrowers.get(i % 50).getId(),
+                    i % 2 == 0 ? LoanEventType.BORROW : LoanEventType.RETURN, Instant.now()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        jdbcTemplate.execute("ANALYZE");
+        return borrowers.get(0).getId();
+    }
+
+    private Map<String, Runnable> cases(Long borrowerId) {
+        return Map.ofEntries(
+                Map.entry("BookRepository.findByIsbn(String)", () -> bookRepository.findByIsbn("isbn-1")),
+                Map.entry("BookRepository.findFreeCopyIds(String)", () -> bookRepository.findFreeCopyIds("isbn-1")),
+                Map.entry("BookRepository.checkOut(Long,Long)", () -> bookRepository.checkOut(1L, borrowerId)),
+                Map.entry("BookRepository.checkIn(Long,Long)", () -> bookRepository.checkIn(1L, borrowerId)),
+                Map.entry("BookRepository.findLoans(Long)", () -> bookRepository.findLoans(borrowerId)),
+                Map.entry("BookRepository.findLoans(Collection)",
+                        () -> bookRepository.findLoans(List.of(borrowerId, borrowerId + 1))),
+                Map.entry("BookPageQueries.findPage(Long,String,String,Boolean,Pageable)",
+                        () -> everyFilterCombination((author, isbn, available) ->
+                                bookRepository.findPage(0L, author, isbn, available, PageRequest.of(0, 20)))),
+                Map.entry("BookPageQueries.findPageWithBorrowers(Long,String,String,Boolean,Pageable)",
+                        () -> everyFilterCombination((author, isbn, available) ->
+                                bookRepository.findPageWithBorrowers(0L, author, isbn, available, PageRequest.of(0, 20)))),
+                Map.entry("BorrowerRepository.existsByEmail(String)",
+                        () -> borrowerRepository.existsByEmail("reader1@example.com")),
+                Map.entry("BorrowerRepository.findByIdGreaterThanOrderByIdAsc(Long,Pageable)",
+                        () -> borrowerRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 20))),
+                Map.entry("BorrowerRepository.findExistingIds(Collection)",
+                        () -> borrowerRepository.findExistingIds(List.of(borrowerId, -1L))),
+                Map.entry("BorrowerRepository.findExistingEmails(Collection)",
+                        () -> borrowerRepository.findExistingEmails(List.of("reader1@example.com", "nobody@example.com"))),
+                Map.entry("LoanEventRepository.findHistory(Long,Long,Pageable)",
+                        () -> loanEventRepository.findHistory(borrowerId, 0L, PageRequest.of(0, 20))));
+    }
+
+    // Repository methods written for this application, as "Interface.method(ParameterTypes)"
+    private Set<String> declaredQueryMethods() {
+        Set<String> methods = new TreeSet<>();
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            Class<?> repository = repositories.getRequiredRepositoryInformation(domainType).getRepositoryInterface();
+            List<Class<?>> interfaces = new ArrayList<>(List.of(repository));
+            interfaces.addAll(Arrays.asList(repository.getInterfaces()));
+            for (Class<?> type : interfaces) {
+                if (!type.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                    continue;
+                }
+                for (Method method : type.getDeclaredMethods()) {
+                    if (!method.isSynthetic() && !method.isDefault()) {
+                        methods.add(signature(type, method));
+                    }
+                }
+            }
+        }
+        return methods;
+    }
+
+    private static String signature(Class<?> type, Method method) {
+        return type.getSimpleName() + "." + method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    // The plan H2 chooses for the statement, with each parameter bound to a value of its column's type
+    private String explain(String sql) throws Exception {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                ParameterMetaData parameters = statement.getParameterMetaData();
+                for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                    switch (parameters.getParameterType(i)) {
+                        case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT, Types.NUMERIC ->
+                                statement.setLong(i, 1L);
+                        case Types.BOOLEAN -> statement.setBoolean(i, true);
+                        default -> statement.setString(i, "1");
+                    }
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    StringBuilder text = new StringBuilder();
+                    while (plan.next()) {
+                        text.append(plan.getString(1));
+                    }
+                    return text.toString();
+                }
+            }
+        });
+    }
+
+    // Problems with each table access in an H2 plan: a scan of the whole table or of a whole index, or an index
+    // that narrows by none of the equality filters on that table while the query has some (typically a walk of the
+    // primary key in id order, discarding rows that do not match)
+    private static List<String> unindexedAccesses(String plan) {
+        List<String> problems = new ArrayList<>();
+        Matcher access = TABLE_ACCESS.matcher(plan);
+        while (access.find()) {
+            String table = access.group(1);
+            String alias = access.group(2);
+            String index = access.group(3);
+            String condition = access.group(4);
+            if (index.endsWith(".tableScan") || condition == null) {
+                problems.add("reads all of " + table + " through " + index);
+                continue;
+            }
+            Set<String> filtered = new TreeSet<>();
+            Matcher filter = Pattern.compile("\"" + alias + "\"\\.\"(\\w+)\" (?:= |IN\\(|IS NULL)").matcher(plan);
+            while (filter.find()) {
+                filtered.add(filter.group(1));
+            }
+            if (!filtered.isEmpty() && filtered.stream().noneMatch(column -> condition.matches("(?s).*\\b" + column + "\\b.*"))) {
+                problems.add("filters " + table + " on " + filtered + " but " + index + " only narrows by " + condition);
+            }
+        }
+        return problems;
+    }
+
+    private static void everyFilterCombination(PageCall call) {
+        for (String author : new String[]{null, "Author 1"}) {
+            for (String isbn : new String[]{null, "isbn-1"}) {
+                for (Boolean available : new Boolean[]{null, true, false}) {
+                    call.run(author, isbn, available);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PageCall {
+        void run(String author, String isbn, Boolean available);
+    }
+
+    // Registered with Hibernate through the statement_inspector property above, so it is created by class name
+    public static class CapturedStatements implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
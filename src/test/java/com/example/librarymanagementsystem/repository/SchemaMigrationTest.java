@@ -0,0 +1,86 @@
+package com.example.librarymanagementsystem.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the H2 migrations the way {@code spring.flyway.*} configures them, on an empty database and on one that
+ * already has the tables the earlier {@code ddl-auto: update} setup created. Flyway records the latter at version 1
+ * without running V1, so the later versions must not depend on anything V1 does not create.
+ */
+class SchemaMigrationTest {
+
+    @Test
+    void testEmptyDatabaseRunsEveryVersion() {
+        DataSource dataSource = dataSource("empty");
+
+        MigrateResult result = flyway(dataSource).migrate();
+
+        assertEquals(4, result.migrationsExecuted);
+        assertEquals("4", result.targetSchemaVersion);
+        assertCurrentSchema(new JdbcTemplate(dataSource));
+    }
+
+    @Test
+    void testExistingDatabaseIsBaselinedAndMigrated() {
+        DataSource dataSource = dataSource("existing");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // The original tables, holding rows whose ids came from the identity columns
+        jdbcTemplate.execute("RUNSCRIPT FROM 'classpath:db/migration/h2/V1__baseline.sql'");
+        jdbcTemplate.update("INSERT INTO borrower (email, name) VALUES ('ada@example.com', 'Ada'), "
+                + "('grace@example.com', 'Grace')");
+        jdbcTemplate.update("INSERT INTO book (isbn, title, author, borrower_id) VALUES "
+                + "('9780000000017', 'Old Book', 'Old Author', NULL), "
+                + "('9780000000017', 'Old Book', 'Old Author', 2), "
+                + "('9780000000024', 'Other Book', 'Other Author', NULL)");
+
+        MigrateResult result = flyway(dataSource).migrate();
+
+        assertEquals(3, result.migrationsExecuted);
+        assertEquals("4", result.targetSchemaVersion);
+        assertCurrentSchema(jdbcTemplate);
+        // The table generators start past the stored ids, and every stored ISBN has its record
+        assertEquals(4L, nextVal(jdbcTemplate, "book"));
+        assertEquals(3L, nextVal(jdbcTemplate, "borrower"));
+        assertEquals(List.of("9780000000017", "9780000000024"),
+                jdbcTemplate.queryForList("SELECT isbn FROM bibliographic_record ORDER BY isbn", String.class));
+    }
+
+    private void assertCurrentSchema(JdbcTemplate jdbcTemplate) {
+        List<String> tables = jdbcTemplate.queryForList("SELECT LOWER(table_name) FROM information_schema.tables "
+                + "WHERE table_schema = 'PUBLIC' ORDER BY 1", String.class);
+        assertEquals(List.of("bibliographic_record", "book", "borrower", "flyway_schema_history", "id_generator",
+                "loan_event", "loan_event_archive"), tables);
+        List<String> indexes = jdbcTemplate.queryForList("SELECT LOWER(index_name) FROM information_schema.indexes "
+                + "WHERE table_schema = 'PUBLIC' AND index_name LIKE 'IDX\\_%' ORDER BY 1", String.class);
+        assertEquals(List.of("idx_book_author", "idx_book_borrower", "idx_book_isbn_borrower",
+                "idx_loan_event_archive_borrower", "idx_loan_event_archive_occurred_at", "idx_loan_event_borrower",
+                "idx_loan_event_occurred_at"), indexes);
+    }
+
+    private long nextVal(JdbcTemplate jdbcTemplate, String sequenceName) {
+        return jdbcTemplate.queryForObject("SELECT next_val FROM id_generator WHERE sequence_name = ?", Long.class,
+                sequenceName);
+    }
+
+    private Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+
+    private DataSource dataSource(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:migration-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.service.impl.AvailabilityCounters;
+import com.example.librarymanagementsystem.service.impl.AvailabilityIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AvailabilityCountersTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final AvailabilityIndex availabilityIndex = mock(AvailabilityIndex.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // Rows returned by the next count of the book table: isbn, copies, copies on loan
+    private final List<Object[]> bookCounts = new ArrayList<>();
+    private AvailabilityCounters availabilityCounters;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] row : bookCounts) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString(1)).thenReturn((String) row[0]);
+                when(rs.getInt(2)).thenReturn((Integer) row[1]);
+                when(rs.getInt(3)).thenReturn((Integer) row[2]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        when(availabilityIndex.isbnOf(1L)).thenReturn("1234567890");
+
+        bookCounts.add(new Object[]{"1234567890", 3, 1});
+        availabilityCounters = new AvailabilityCounters(jdbcTemplate, availabilityIndex, registry);
+        availabilityCounters.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void testCountersFollowRegistrationsAndLoans() {
+        assertEquals(new AvailabilityCounters.Counts(3, 1), availabilityCounters.get("1234567890"));
+
+        availabilityCounters.copyAdded("1234567890", false);
+        availabilityCounters.copyBorrowed(1L);
+        availabilityCounters.copyBorrowed(1L);
+        assertEquals(new AvailabilityCounters.Counts(4, 3), availabilityCounters.get("1234567890"));
+        assertEquals(1, availabilityCounters.get("1234567890").available());
+
+        availabilityCounters.copyReturned(1L);
+        assertEquals(2, availabilityCounters.get("1234567890").available());
+        assertNull(availabilityCounters.get("0000000000"));
+    }
+
+    @Test
+    void testOnLoanAddsUpEveryIsbn() {
+        availabilityCounters.copyAdded("5555555555", true);
+        availabilityCounters.copyBorrowed(1L);
+
+        assertEquals(3, availabilityCounters.onLoan());
+    }
+
+    @Test
+    void testCopiesUnknownToTheIndexAreLeftToTheCheck() {
+        availabilityCounters.copyBorrowed(99L);
+
+        assertEquals(new AvailabilityCounters.Counts(3, 1), availabilityCounters.get("1234567890"));
+    }
+
+    @Test
+    void testCheckCorrectsDriftedAndMissingIsbns() {
+        // Another instance lent a copy and registered a new ISBN
+        bookCounts.clear();
+        bookCounts.add(new Object[]{"1234567890", 3, 2});
+        bookCounts.add(new Object[]{"5555555555", 1, 0});
+
+        assertEquals(2, availabilityCounters.check());
+
+        assertEquals(new AvailabilityCounters.Counts(3, 2), availabilityCounters.get("1234567890"));
+        assertEquals(new AvailabilityCounters.Counts(1, 0), availabilityCounters.get("5555555555"));
+        assertEquals(2.0, registry.get("library.availability.corrections").counter().count());
+        assertEquals(0, availabilityCounters.check());
+    }
+
+    @Test
+    void testCheckLeavesIsbnsThatChangeDuringTheRecount() {
+        bookCounts.clear();
+        bookCounts.add(new Object[]{"1234567890", 3, 2});
+        // A local checkout commits while the book table is being recounted
+        doAnswer(invocation -> {
+            availabilityCounters.copyBorrowed(1L);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        assertEquals(0, availabilityCounters.check());
+        assertEquals(new AvailabilityCounters.Counts(3, 2), availabilityCounters.get("1234567890"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.service.impl.AvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AvailabilityIndexTest {
+
+    private AvailabilityIndex availabilityIndex;
+
+    @BeforeEach
+    void setUp() {
+        availabilityIndex = new AvailabilityIndex(mock(JdbcTemplate.class));
+        availabilityIndex.addCopy(1L, "1234567890", true);
+        availabilityIndex.addCopy(2L, "1234567890", true);
+        availabilityIndex.addCopy(3L, "1234567890", false);
+    }
+
+    @Test
+    void testClaimHandsOutOnlyFreeCopies() {
+        Long first = availabilityIndex.claim("1234567890");
+        Long second = availabilityIndex.claim("1234567890");
+
+        assertEquals(Set.of(1L, 2L), Set.of(first, second));
+        assertNull(availabilityIndex.claim("1234567890"));
+        assertNull(availabilityIndex.claim("0000000000"));
+    }
+
+    @Test
+    void testBorrowAndReturnUpdateFreeCopies() {
+        availabilityIndex.markBorrowed(1L);
+        assertEquals(1, availabilityIndex.freeCopyCount("1234567890"));
+
+        availabilityIndex.markReturned(3L);
+        assertEquals(2, availabilityIndex.freeCopyCount("1234567890"));
+        assertNotEquals(1L, availabilityIndex.claim("1234567890"));
+    }
+
+    @Test
+    void testReconcileReplacesFreeCopies() {
+        availabilityIndex.reconcile("1234567890", List.of(3L, 4L));
+
+        assertEquals(2, availabilityIndex.freeCopyCount("1234567890"));
+        availabilityIndex.markBorrowed(4L);
+        assertEquals(3L, availabilityIndex.claim("1234567890"));
+    }
+
+    @Test
+    void testConcurrentClaimsNeverShareACopy() throws InterruptedException {
+        availabilityIndex.reconcile("9780132350884", LongStream.rangeClosed(1, 10_000).boxed().toList());
+        Set<Long> claimed = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                Long bookId;
+                while ((bookId = availabilityIndex.claim("9780132350884")) != null) {
+                    assertTrue(claimed.add(bookId));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(10_000, claimed.size());
+    }
+}
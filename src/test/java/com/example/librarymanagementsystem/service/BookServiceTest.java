@@ -1,26 +1,47 @@
 package com.example.librarymanagementsystem.service;
 
+import com.example.librarymanagementsystem.dto.BookAvailabilityDTO;
 import com.example.librarymanagementsystem.dto.BookDTO;
+import com.example.librarymanagementsystem.dto.BookSearchResultDTO;
+import com.example.librarymanagementsystem.dto.BulkItemResultDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import com.example.librarymanagementsystem.entity.BibliographicRecord;
 import com.example.librarymanagementsystem.entity.Book;
 import com.example.librarymanagementsystem.entity.Borrower;
 import com.example.librarymanagementsystem.exception.ResourceNotFoundException;
+import com.example.librarymanagementsystem.mapper.BookMapper;
+import com.example.librarymanagementsystem.repository.BibliographicRecordRepository;
 import com.example.librarymanagementsystem.repository.BookRepository;
 import com.example.librarymanagementsystem.repository.BorrowerRepository;
+import com.example.librarymanagementsystem.service.impl.AvailabilityCounters;
+import com.example.librarymanagementsystem.service.impl.AvailabilityIndex;
 import com.example.librarymanagementsystem.service.impl.BookServiceImpl;
+import com.example.librarymanagementsystem.service.impl.CatalogSearchIndex;
+import com.example.librarymanagementsystem.service.impl.ChangeFeed;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,7 +52,19 @@ class BookServiceTest {
     @Mock
     private BorrowerRepository borrowerRepository;
     @Mock
-    private ModelMapper modelMapper;
+    private BibliographicRecordRepository bibliographicRecordRepository;
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+    @Mock
+    private CatalogSearchIndex catalogSearchIndex;
+    @Mock
+    private AvailabilityCounters availabilityCounters;
+    @Mock
+    private ChangeFeed changeFeed;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private BookMapper bookMapper = new BookMapper();
 
     @InjectMocks
     private BookServiceImpl bookService;
@@ -51,84 +84,115 @@ class BookServiceTest {
         Book book = new Book(1L, "1234567890", "Test Book", "Test Author", null);
 
         // Mocking
-        when(modelMapper.map(bookDTO, Book.class)).thenReturn(book);
-        when(modelMapper.map(book, BookDTO.class)).thenReturn(bookDTO);
         when(bookRepository.save(any(Book.class))).thenReturn(book);
 
         // When
         BookDTO savedBook = bookService.registerBook(bookDTO);
 
-        // Then
+        // Then: the first copy of an ISBN registers its bibliographic record
+        verify(bibliographicRecordRepository).saveAndFlush(new BibliographicRecord("1234567890", "Test Book", "Test Author"));
         assertEquals(bookDTO.getIsbn(), savedBook.getIsbn());
         assertEquals(bookDTO.getTitle(), savedBook.getTitle());
         assertEquals(bookDTO.getAuthor(), savedBook.getAuthor());
+        verify(availabilityCounters).copyAdded("1234567890", false);
+        verify(changeFeed).publish(ChangeFeed.BOOK_REGISTERED, savedBook);
     }
 
     @Test
     void testRegisterBookWithExistingISBNAndSameTitleAuthor() {
         // Given
         BookDTO bookDTO = createBookDTO("1234567890", "Test Book", "Test Author");
-        Book existingBook = new Book(1L, "1234567890", "Test Book", "Test Author", null);
-        List<Book> existingBooks = List.of(existingBook);
+        BibliographicRecord existingRecord = new BibliographicRecord("1234567890", "Test Book", "Test Author");
 
         // Mocking
-        when(bookRepository.findByIsbn(bookDTO.getIsbn())).thenReturn(existingBooks);
-        when(modelMapper.map(bookDTO, Book.class)).thenReturn(existingBook);
-
+        when(bibliographicRecordRepository.findById(bookDTO.getIsbn())).thenReturn(Optional.of(existingRecord));
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        // When / Then
+        // When / Then: a single registry lookup, no scan of the existing copies
         assertDoesNotThrow(() -> bookService.registerBook(bookDTO));
+        verify(bookRepository, never()).findByIsbn(any());
+        verify(bibliographicRecordRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void testRegisterBookWithExistingISBNAndDifferentTitle() {
         // Given
         BookDTO bookDTO = createBookDTO("1234567890", "Different Title", "Test Author");
-        Book existingBook = new Book(1L, "1234567890", "Test Book", "Test Author", null);
-        List<Book> existingBooks = List.of(existingBook);
+        BibliographicRecord existingRecord = new BibliographicRecord("1234567890", "Test Book", "Test Author");
 
         // Mocking
-        when(bookRepository.findByIsbn(bookDTO.getIsbn())).thenReturn(existingBooks);
+        when(bibliographicRecordRepository.findById(bookDTO.getIsbn())).thenReturn(Optional.of(existingRecord));
 
         // When / Then
         assertThrows(IllegalArgumentException.class, () -> bookService.registerBook(bookDTO));
     }
 
+    @Test
+    void testRegisterBookValidatesAgainstConcurrentFirstCopy() {
+        // Given: another request registers the ISBN between the lookup and the insert, with another title
+        BookDTO bookDTO = createBookDTO("1234567890", "Test Book", "Test Author");
+        BibliographicRecord winner = new BibliographicRecord("1234567890", "Other Title", "Test Author");
+
+        // Mocking
+        when(bibliographicRecordRepository.findById(bookDTO.getIsbn()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winner));
+        when(bibliographicRecordRepository.saveAndFlush(any(BibliographicRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("PRIMARY KEY ON bibliographic_record(isbn)"));
+
+        // When / Then: a validation error against the winner's record, not a 500 from the key violation
+        assertThrows(IllegalArgumentException.class, () -> bookService.registerBook(bookDTO));
+        verify(bookRepository, never()).save(any());
+    }
+
     @Test
     void testRegisterBookWithExistingISBNAndDifferentAuthor() {
         // Given
         BookDTO bookDTO = createBookDTO("1234567890", "Test Book", "Different Author");
-        Book existingBook = new Book(1L, "1234567890", "Test Book", "Test Author", null);
-        List<Book> existingBooks = List.of(existingBook);
+        BibliographicRecord existingRecord = new BibliographicRecord("1234567890", "Test Book", "Test Author");
 
         // Mocking
-        when(bookRepository.findByIsbn(bookDTO.getIsbn())).thenReturn(existingBooks);
+        when(bibliographicRecordRepository.findById(bookDTO.getIsbn())).thenReturn(Optional.of(existingRecord));
 
         // When / Then
         assertThrows(IllegalArgumentException.class, () -> bookService.registerBook(bookDTO));
     }
 
     @Test
-    void testGetAllBooks() {
+    void testGetBooksReturnsNextCursorWhenMoreRowsExist() {
         // Given
         Book book1 = new Book(1L, "1234567890", "Book 1", "Author 1", null);
         Book book2 = new Book(2L, "0987654321", "Book 2", "Author 2", null);
-        List<Book> mockBooks = Arrays.asList(book1, book2);
+        Book book3 = new Book(3L, "1111111111", "Book 3", "Author 3", null);
 
-        // Mocking
-        when(bookRepository.findAll()).thenReturn(mockBooks);
-        when(modelMapper.map(book1, BookDTO.class)).thenReturn(new BookDTO(book1.getId(), book1.getIsbn(), book1.getTitle(), book1.getAuthor(), null));
-        when(modelMapper.map(book2, BookDTO.class)).thenReturn(new BookDTO(book2.getId(), book2.getIsbn(), book2.getTitle(), book2.getAuthor(), null));
+        // Mocking: the service asks for one row past the requested limit
+        when(bookRepository.findPage(eq(0L), eq(null), eq(null), eq(true), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(book1, book2, book3));
 
         // When
-        List<BookDTO> books = bookService.getAllBooks();
+        CursorPageDTO<BookDTO> page = bookService.getBooks(null, 2, null, null, true);
 
         // Then
-        assertEquals(2, books.size());
-        assertEquals(book1.getIsbn(), books.get(0).getIsbn());
-        assertEquals(book2.getIsbn(), books.get(1).getIsbn());
+        assertEquals(2, page.getItems().size());
+        assertEquals(2L, page.getNextCursor());
     }
 
+    @Test
+    void testGetBooksLastPageHasNoCursor() {
+        // Given
+        Book book1 = new Book(5L, "1234567890", "Book 1", "Author 1", null);
+
+        // Mocking
+        when(bookRepository.findPage(eq(4L), eq("Author 1"), eq("1234567890"), eq(null), eq(PageRequest.of(0, 11))))
+                .thenReturn(List.of(book1));
+
+        // When
+        CursorPageDTO<BookDTO> page = bookService.getBooks(4L, 10, "Author 1", "1234567890", null);
+
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
 
     @Test
     void testRegisterBookWithValidBorrowerId() {
@@ -138,10 +202,8 @@ class BookServiceTest {
         Borrower borrower = new Borrower(1L, "doe@john.com", "John Doe");
 
         // Mocking
-        when(modelMapper.map(bookDTO, Book.class)).thenReturn(new Book());
-        when(modelMapper.map(new Book(), BookDTO.class)).thenReturn(bookDTO);
         when(borrowerRepository.findById(1L)).thenReturn(Optional.of(borrower));
-        when(bookRepository.save(any(Book.class))).thenReturn(new Book());
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         BookDTO savedBook = bookService.registerBook(bookDTO);
@@ -158,7 +220,6 @@ class BookServiceTest {
         bookDTO.setBorrowerId(999L);
 
         // Mocking
-        when(modelMapper.map(bookDTO, Book.class)).thenReturn(new Book());
         when(borrowerRepository.findById(999L)).thenReturn(Optional.empty());
 
         // When / Then
@@ -172,9 +233,7 @@ class BookServiceTest {
         bookDTO.setBorrowerId(null);
 
         // Mocking
-        when(modelMapper.map(bookDTO, Book.class)).thenReturn(new Book());
-        when(modelMapper.map(new Book(), BookDTO.class)).thenReturn(bookDTO);
-        when(bookRepository.save(any(Book.class))).thenReturn(new Book());
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         BookDTO savedBook = bookService.registerBook(bookDTO);
@@ -191,16 +250,125 @@ class BookServiceTest {
         bookDTO.setBorrowerId(0L);
 
         // Mocking
-        when(modelMapper.map(bookDTO, Book.class)).thenReturn(new Book());
-        when(modelMapper.map(new Book(), BookDTO.class)).thenReturn(bookDTO);
-        when(bookRepository.save(any(Book.class))).thenReturn(new Book());
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         BookDTO savedBook = bookService.registerBook(bookDTO);
 
         // Then
         assertNotNull(savedBook);
-        assertEquals(0L, savedBook.getBorrowerId());
+        assertNull(savedBook.getBorrowerId());
+    }
+
+    @Test
+    void testRegisterBooksReportsResultPerItem() {
+        // Given: one ISBN already in the catalog, a new ISBN twice, and several invalid entries
+        BookDTO existingIsbn = createBookDTO("1234567890", "Test Book", "Test Author");
+        BookDTO conflictingExistingIsbn = createBookDTO("1234567890", "Other Title", "Test Author");
+        BookDTO newIsbn = createBookDTO("5555555555", "New Book", "New Author");
+        BookDTO conflictingNewIsbn = createBookDTO("5555555555", "New Book", "Someone Else");
+        BookDTO missingTitle = createBookDTO("7777777777", null, "Author");
+        BookDTO unknownBorrower = createBookDTO("5555555555", "New Book", "New Author");
+        unknownBorrower.setBorrowerId(42L);
+        BookDTO knownBorrower = createBookDTO("5555555555", "New Book", "New Author");
+        knownBorrower.setBorrowerId(1L);
+        List<BookDTO> bookDTOs = List.of(existingIsbn, conflictingExistingIsbn, newIsbn, conflictingNewIsbn,
+                missingTitle, unknownBorrower, knownBorrower);
+
+        // Mocking: one set-based lookup each for ISBNs and borrowers, ids assigned on save
+        when(bibliographicRecordRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(new BibliographicRecord("1234567890", "Test Book", "Test Author")));
+        when(borrowerRepository.findExistingIds(anyCollection())).thenReturn(Set.of(1L));
+        when(borrowerRepository.getReferenceById(1L)).thenReturn(new Borrower(1L, "doe@john.com", "John Doe"));
+        AtomicLong ids = new AtomicLong(100);
+        when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            books.forEach(book -> book.setId(ids.incrementAndGet()));
+            return books;
+        });
+
+        // When
+        List<BulkItemResultDTO> results = bookService.registerBooks(bookDTOs);
+
+        // Then
+        assertEquals(7, results.size());
+        assertEquals(BulkItemResultDTO.created(0, 101L), results.get(0));
+        assertEquals(BulkItemResultDTO.Status.REJECTED, results.get(1).getStatus());
+        assertEquals(BulkItemResultDTO.created(2, 102L), results.get(2));
+        assertEquals(BulkItemResultDTO.Status.REJECTED, results.get(3).getStatus());
+        assertEquals("ISBN, title and author are required", results.get(4).getError());
+        assertEquals("Borrower not found with id: 42", results.get(5).getError());
+        assertEquals(BulkItemResultDTO.created(6, 103L), results.get(6));
+        // Only the new ISBN is added to the registry, once
+        verify(bibliographicRecordRepository)
+                .saveAllAndFlush(List.of(new BibliographicRecord("5555555555", "New Book", "New Author")));
+    }
+
+    @Test
+    void testRegisterBooksRetriesOneByOneAfterConcurrentNewIsbn() {
+        // Given: another import registers 5555555555 with another author between the lookup and the insert
+        BookDTO newIsbn = createBookDTO("5555555555", "New Book", "New Author");
+        BookDTO otherIsbn = createBookDTO("6666666666", "Other Book", "Other Author");
+
+        when(bibliographicRecordRepository.findAllById(anyCollection())).thenReturn(List.of());
+        when(bibliographicRecordRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("PRIMARY KEY ON bibliographic_record(isbn)"));
+        when(bibliographicRecordRepository.findById("5555555555"))
+                .thenReturn(Optional.of(new BibliographicRecord("5555555555", "New Book", "Someone Else")));
+        when(bibliographicRecordRepository.findById("6666666666")).thenReturn(Optional.empty());
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> {
+            Book book = invocation.getArgument(0);
+            book.setId(31L);
+            return book;
+        });
+
+        // When
+        List<BulkItemResultDTO> results = bookService.registerBooks(List.of(newIsbn, otherIsbn));
+
+        // Then: the chunk is not a 500; only the copy that conflicts with the winner's record is rejected
+        assertEquals(BulkItemResultDTO.rejected(0, "Books with the same ISBN must have the same title and author"),
+                results.get(0));
+        assertEquals(BulkItemResultDTO.created(1, 31L), results.get(1));
+        verify(bibliographicRecordRepository)
+                .saveAndFlush(new BibliographicRecord("6666666666", "Other Book", "Other Author"));
+        verify(changeFeed).publish(eq(ChangeFeed.BOOK_REGISTERED), any());
+    }
+
+    @Test
+    void testSearchBooksAddsAvailableCopies() {
+        CatalogSearchIndex searchIndex = new CatalogSearchIndex(null);
+        searchIndex.addCopy("1234567890", "Test Book", "Test Author");
+        searchIndex.addCopy("1234567890", "Test Book", "Test Author");
+        when(catalogSearchIndex.search("test", 20)).thenReturn(searchIndex.search("test", 20));
+        when(availabilityCounters.get("1234567890")).thenReturn(new AvailabilityCounters.Counts(2, 1));
+
+        List<BookSearchResultDTO> results = bookService.searchBooks("test", null);
+
+        assertEquals(List.of(new BookSearchResultDTO("1234567890", "Test Book", "Test Author", 2, 1)), results);
+    }
+
+    @Test
+    void testSearchBooksCapsLimit() {
+        bookService.searchBooks("test", 10_000);
+
+        verify(catalogSearchIndex).search("test", 100);
+    }
+
+    @Test
+    void testGetAvailability() {
+        when(availabilityCounters.get("1234567890")).thenReturn(new AvailabilityCounters.Counts(3, 1));
+
+        assertEquals(new BookAvailabilityDTO("1234567890", 3, 2), bookService.getAvailability("1234567890"));
+        assertThrows(ResourceNotFoundException.class, () -> bookService.getAvailability("0000000000"));
     }
 
+    @Test
+    void testGetAvailabilityOfManyIsbns() {
+        when(availabilityCounters.get("1234567890")).thenReturn(new AvailabilityCounters.Counts(3, 3));
+
+        List<BookAvailabilityDTO> availability = bookService.getAvailability(List.of("1234567890", "0000000000", "1234567890"));
+
+        assertEquals(List.of(new BookAvailabilityDTO("1234567890", 3, 0), new BookAvailabilityDTO("0000000000", 0, 0)),
+                availability);
+    }
 }
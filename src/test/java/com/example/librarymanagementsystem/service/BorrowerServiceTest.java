@@ -1,25 +1,48 @@
 package com.example.librarymanagementsystem.service;
 
+import com.example.librarymanagementsystem.dto.BookDTO;
 import com.example.librarymanagementsystem.dto.BorrowerDTO;
+import com.example.librarymanagementsystem.dto.BulkItemResultDTO;
+import com.example.librarymanagementsystem.dto.CursorPageDTO;
+import com.example.librarymanagementsystem.dto.LoanChangeDTO;
+import com.example.librarymanagementsystem.dto.LoanEventDTO;
 import com.example.librarymanagementsystem.entity.Book;
 import com.example.librarymanagementsystem.entity.Borrower;
+import com.example.librarymanagementsystem.entity.LoanEventType;
+import com.example.librarymanagementsystem.exception.NoAvailableCopyException;
 import com.example.librarymanagementsystem.exception.ResourceNotFoundException;
+import com.example.librarymanagementsystem.mapper.BorrowerMapper;
 import com.example.librarymanagementsystem.repository.BookRepository;
 import com.example.librarymanagementsystem.repository.BorrowerRepository;
+import com.example.librarymanagementsystem.repository.LoanEventRepository;
+import com.example.librarymanagementsystem.service.impl.AvailabilityCounters;
+import com.example.librarymanagementsystem.service.impl.AvailabilityIndex;
 import com.example.librarymanagementsystem.service.impl.BorrowerServiceImpl;
+import com.example.librarymanagementsystem.service.impl.ChangeFeed;
+import com.example.librarymanagementsystem.service.impl.LoanEventLog;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
@@ -31,7 +54,19 @@ class BorrowerServiceTest {
     @Mock
     private BookRepository bookRepository;
     @Mock
-    private ModelMapper modelMapper;
+    private AvailabilityIndex availabilityIndex;
+    @Mock
+    private AvailabilityCounters availabilityCounters;
+    @Mock
+    private LoanEventRepository loanEventRepository;
+    @Mock
+    private LoanEventLog loanEventLog;
+    @Mock
+    private ChangeFeed changeFeed;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private BorrowerMapper borrowerMapper = new BorrowerMapper();
 
     @InjectMocks
     private BorrowerServiceImpl borrowerService;
@@ -42,9 +77,7 @@ class BorrowerServiceTest {
         BorrowerDTO borrowerDTO = new BorrowerDTO(null, "test@example.com", "Test Borrower");
         Borrower savedBorrower = new Borrower(1L, "test@example.com", "Test Borrower");
 
-        when(modelMapper.map(borrowerDTO, Borrower.class)).thenReturn(new Borrower());
         when(borrowerRepository.save(any(Borrower.class))).thenReturn(savedBorrower);
-        when(modelMapper.map(savedBorrower, BorrowerDTO.class)).thenReturn(borrowerDTO);
 
         // When
         BorrowerDTO result = borrowerService.registerBorrower(borrowerDTO);
@@ -53,69 +86,61 @@ class BorrowerServiceTest {
         assertNotNull(result);
         assertEquals("test@example.com", result.getEmail());
         assertEquals("Test Borrower", result.getName());
+        verify(changeFeed).publish(ChangeFeed.BORROWER_REGISTERED, result);
     }
 
     @Test
     void testBorrowBook() {
-        // Given
-        Borrower borrower = new Borrower(1L, "test@example.com", "Test Borrower");
-        Book book = new Book(1L, "1234567890", "Test Book", "Test Author", null);
-
-        when(borrowerRepository.findById(1L)).thenReturn(Optional.of(borrower));
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        when(bookRepository.save(any(Book.class))).thenReturn(book);
+        // Given: the conditional update claims the copy
+        when(bookRepository.checkOut(1L, 1L)).thenReturn(1);
 
         // When
         assertDoesNotThrow(() -> borrowerService.borrowBook(1L, 1L));
 
-        // Then
-        assertNotNull(book.getBorrower());
-        assertEquals(borrower, book.getBorrower());
+        // Then: a single statement, no entities loaded
+        verify(bookRepository, never()).findById(anyLong());
+        verify(borrowerRepository, never()).findById(anyLong());
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(loanEventLog).record(LoanEventType.BORROW, 1L, 1L);
+        verify(availabilityCounters).copyBorrowed(1L);
+        verify(changeFeed).publish(ChangeFeed.BORROWED, new LoanChangeDTO(1L, 1L));
     }
 
     @Test
     void testBorrowBookAlreadyBorrowed() {
-        // Given
-        Borrower borrower = new Borrower(1L, "test@example.com", "Test Borrower");
-        Book book = new Book(1L, "1234567890", "Test Book", "Test Author", null);
-        book.setBorrower(borrower);
-
-        when(borrowerRepository.findById(1L)).thenReturn(Optional.of(borrower));
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        // Given: the copy is on loan, so the conditional update matches no row
+        when(bookRepository.checkOut(1L, 1L)).thenReturn(0);
+        when(borrowerRepository.existsById(1L)).thenReturn(true);
+        when(bookRepository.existsById(1L)).thenReturn(true);
 
         // When, Then
         RuntimeException exception = assertThrows(RuntimeException.class, () -> borrowerService.borrowBook(1L, 1L));
         assertEquals("Book is already borrowed", exception.getMessage());
+        verifyNoInteractions(loanEventLog, changeFeed);
     }
 
     @Test
     void testReturnBook() {
-        // Given
-        Borrower borrower = new Borrower(1L, "test@example.com", "Test Borrower");
-        Book book = new Book(1L, "1234567890", "Test Book", "Test Author", null);
-        book.setBorrower(borrower);
-
-        when(borrowerRepository.findById(1L)).thenReturn(Optional.of(borrower));
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        when(bookRepository.save(any(Book.class))).thenReturn(book);
+        // Given: the conditional update releases the copy
+        when(bookRepository.checkIn(1L, 1L)).thenReturn(1);
 
         // When
         assertDoesNotThrow(() -> borrowerService.returnBook(1L, 1L));
 
         // Then
-        assertNull(book.getBorrower());
+        verify(bookRepository, never()).findById(anyLong());
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(loanEventLog).record(LoanEventType.RETURN, 1L, 1L);
+        verify(availabilityCounters).copyReturned(1L);
+        verify(changeFeed).publish(ChangeFeed.RETURNED, new LoanChangeDTO(1L, 1L));
     }
 
     @Test
     void testReturnBookNotBorrowed() {
-        // Given
-        Borrower borrower = new Borrower(1L, "test@example.com", "Test Borrower");
-        Borrower anotherBorrower = new Borrower(2L, "another@example.com", "Another Borrower");
-        Book book = new Book(1L, "1234567890", "Test Book", "Test Author", null);
-        book.setBorrower(anotherBorrower);
-
-        when(borrowerRepository.findById(1L)).thenReturn(Optional.of(borrower));
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        // Given: the copy is not on loan to this borrower, so the conditional update matches no row
+        when(bookRepository.checkIn(1L, 1L)).thenReturn(0);
+        when(borrowerRepository.existsById(1L)).thenReturn(true);
+        when(bookRepository.existsById(1L)).thenReturn(true);
 
         // When, Then
         RuntimeException exception = assertThrows(RuntimeException.class, () -> borrowerService.returnBook(1L, 1L));
@@ -123,23 +148,20 @@ class BorrowerServiceTest {
     }
 
     @Test
-    void testGetAllBorrowers() {
+    void testGetBorrowersPage() {
         // Given
-        Borrower borrower1 = new Borrower(1L, "borrower1@example.com", "Borrower 1");
-        Borrower borrower2 = new Borrower(2L, "borrower2@example.com", "Borrower 2");
-        List<Borrower> borrowers = Arrays.asList(borrower1, borrower2);
+        Borrower borrower1 = new Borrower(11L, "borrower1@example.com", "Borrower 1");
+        Borrower borrower2 = new Borrower(12L, "borrower2@example.com", "Borrower 2");
 
-        when(borrowerRepository.findAll()).thenReturn(borrowers);
-        when(modelMapper.map(borrower1, BorrowerDTO.class)).thenReturn(new BorrowerDTO(1L, "borrower1@example.com", "Borrower 1"));
-        when(modelMapper.map(borrower2, BorrowerDTO.class)).thenReturn(new BorrowerDTO(2L, "borrower2@example.com", "Borrower 2"));
+        when(borrowerRepository.findByIdGreaterThanOrderByIdAsc(10L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(borrower1, borrower2));
 
         // When
-        List<BorrowerDTO> result = borrowerService.getAllBorrowers();
+        CursorPageDTO<BorrowerDTO> page = borrowerService.getBorrowers(10L, 1);
 
         // Then
-        assertEquals(2, result.size());
-        assertEquals("borrower1@example.com", result.get(0).getEmail());
-        assertEquals("Borrower 2", result.get(1).getName());
+        assertEquals(1, page.getItems().size());
+        assertEquals(11L, page.getNextCursor());
     }
 
     @Test
@@ -148,7 +170,8 @@ class BorrowerServiceTest {
         Long borrowerId = 1L;
         Long bookId = 1L;
 
-        when(borrowerRepository.findById(borrowerId)).thenReturn(Optional.empty());
+        when(bookRepository.checkOut(bookId, borrowerId)).thenReturn(0);
+        when(borrowerRepository.existsById(borrowerId)).thenReturn(false);
 
         // When
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
@@ -156,8 +179,7 @@ class BorrowerServiceTest {
 
         // Then
         assertEquals("Borrower not found with id: " + borrowerId, exception.getMessage());
-        verify(bookRepository, never()).findById(anyLong());
-        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookRepository, never()).existsById(anyLong());
     }
 
     @Test
@@ -165,10 +187,10 @@ class BorrowerServiceTest {
         // Given
         Long borrowerId = 1L;
         Long bookId = 1L;
-        Borrower borrower = new Borrower(borrowerId, "borrower@example.com", "Test Borrower");
 
-        when(borrowerRepository.findById(borrowerId)).thenReturn(Optional.of(borrower));
-        when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
+        when(bookRepository.checkOut(bookId, borrowerId)).thenReturn(0);
+        when(borrowerRepository.existsById(borrowerId)).thenReturn(true);
+        when(bookRepository.existsById(bookId)).thenReturn(false);
 
         // When
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
@@ -176,8 +198,179 @@ class BorrowerServiceTest {
 
         // Then
         assertEquals("Book not found with id: " + bookId, exception.getMessage());
-        verify(bookRepository, times(1)).findById(bookId);
-        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookRepository, times(1)).checkOut(bookId, borrowerId);
+    }
+
+    @Test
+    void testRegisterBorrowersRejectsDuplicateEmails() {
+        // Given: one email already registered, one repeated within the batch and one incomplete entry
+        List<BorrowerDTO> borrowerDTOs = List.of(
+                new BorrowerDTO(null, "existing@example.com", "Existing Borrower"),
+                new BorrowerDTO(null, "new@example.com", "New Borrower"),
+                new BorrowerDTO(null, "new@example.com", "Same Email"),
+                new BorrowerDTO(null, null, "No Email"),
+                new BorrowerDTO(null, "other@example.com", "Other Borrower"));
+
+        when(borrowerRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("existing@example.com"));
+        AtomicLong ids = new AtomicLong(10);
+        when(borrowerRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Borrower> borrowers = invocation.getArgument(0);
+            borrowers.forEach(borrower -> borrower.setId(ids.incrementAndGet()));
+            return borrowers;
+        });
+
+        // When
+        List<BulkItemResultDTO> results = borrowerService.registerBorrowers(borrowerDTOs);
+
+        // Then
+        assertEquals(5, results.size());
+        assertEquals("A borrower with this email already exists.", results.get(0).getError());
+        assertEquals(BulkItemResultDTO.created(1, 11L), results.get(1));
+        assertEquals("Email appears earlier in this batch", results.get(2).getError());
+        assertEquals("Email and name are required", results.get(3).getError());
+        assertEquals(BulkItemResultDTO.created(4, 12L), results.get(4));
+        // Existing emails are looked up once per chunk, not once per row
+        verify(borrowerRepository, times(1)).findExistingEmails(anyCollection());
+        verify(borrowerRepository, never()).existsByEmail(any());
+    }
+
+    @Test
+    void testRegisterBorrowersComparesEmailsIgnoringCase() {
+        // Given: the database matched an existing borrower under another spelling, and the batch repeats an email
+        List<BorrowerDTO> borrowerDTOs = List.of(
+                new BorrowerDTO(null, "Existing@Example.com", "Existing Borrower"),
+                new BorrowerDTO(null, "New@Example.com", "New Borrower"),
+                new BorrowerDTO(null, "new@example.com", "Same Email"));
+
+        when(borrowerRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("existing@example.com"));
+        when(borrowerRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Borrower> borrowers = invocation.getArgument(0);
+            borrowers.forEach(borrower -> borrower.setId(11L));
+            return borrowers;
+        });
+
+        // When
+        List<BulkItemResultDTO> results = borrowerService.registerBorrowers(borrowerDTOs);
+
+        // Then
+        assertEquals("A borrower with this email already exists.", results.get(0).getError());
+        assertEquals(BulkItemResultDTO.created(1, 11L), results.get(1));
+        assertEquals("Email appears earlier in this batch", results.get(2).getError());
+    }
+
+    @Test
+    void testRegisterBorrowersRetriesOneByOneAfterConcurrentDuplicate() {
+        // Given: another request registers taken@example.com between the lookup and the insert
+        List<BorrowerDTO> borrowerDTOs = List.of(
+                new BorrowerDTO(null, "free@example.com", "Free Borrower"),
+                new BorrowerDTO(null, "taken@example.com", "Taken Borrower"));
+
+        when(borrowerRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(borrowerRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("uk_borrower_email"));
+        when(borrowerRepository.saveAndFlush(any(Borrower.class))).thenAnswer(invocation -> {
+            Borrower borrower = invocation.getArgument(0);
+            if (borrower.getEmail().equals("taken@example.com")) {
+                throw new DataIntegrityViolationException("uk_borrower_email");
+            }
+            borrower.setId(21L);
+            return borrower;
+        });
+
+        // When
+        List<BulkItemResultDTO> results = borrowerService.registerBorrowers(borrowerDTOs);
+
+        // Then: the chunk is not a 500; only the conflicting entry is rejected
+        assertEquals(BulkItemResultDTO.created(0, 21L), results.get(0));
+        assertEquals("A borrower with this email already exists.", results.get(1).getError());
+        verify(changeFeed, times(1)).publish(eq(ChangeFeed.BORROWER_REGISTERED), any());
+    }
+
+    @Test
+    void testBorrowAvailableCopySkipsStaleCopies() {
+        // Given: the index offers copy 5, which was lent out elsewhere, then copy 6
+        when(availabilityIndex.claim("1234567890")).thenReturn(5L, 6L);
+        when(bookRepository.checkOut(5L, 1L)).thenReturn(0);
+        when(bookRepository.checkOut(6L, 1L)).thenReturn(1);
+        when(borrowerRepository.existsById(1L)).thenReturn(true);
+
+        // When
+        Long bookId = borrowerService.borrowAvailableCopy(1L, "1234567890");
+
+        // Then
+        assertEquals(6L, bookId);
+        verify(availabilityIndex).confirmClaim(6L);
+        verify(availabilityIndex, never()).release(5L);
+        verify(loanEventLog).record(LoanEventType.BORROW, 6L, 1L);
+        verify(availabilityCounters).copyBorrowed(6L);
+        verify(availabilityCounters, never()).copyBorrowed(5L);
+        verify(bookRepository, never()).findFreeCopyIds(any());
+    }
+
+    @Test
+    void testBorrowAvailableCopyReconcilesBeforeGivingUp() {
+        // Given: the index and the database agree that every copy is on loan
+        when(availabilityIndex.claim("1234567890")).thenReturn(null);
+        when(bookRepository.findFreeCopyIds("1234567890")).thenReturn(List.of());
+
+        // When, Then
+        assertThrows(NoAvailableCopyException.class, () -> borrowerService.borrowAvailableCopy(1L, "1234567890"));
+        verify(availabilityIndex, times(1)).reconcile("1234567890", List.of());
+        verify(bookRepository, never()).checkOut(anyLong(), anyLong());
+    }
+
+    @Test
+    void testBorrowAvailableCopyUnknownBorrowerKeepsCopyFree() {
+        // Given
+        when(availabilityIndex.claim("1234567890")).thenReturn(5L);
+        when(bookRepository.checkOut(5L, 1L)).thenReturn(0);
+        when(borrowerRepository.existsById(1L)).thenReturn(false);
+
+        // When, Then
+        assertThrows(ResourceNotFoundException.class, () -> borrowerService.borrowAvailableCopy(1L, "1234567890"));
+        verify(availabilityIndex).release(5L);
+    }
+
+    @Test
+    void testGetBorrowedBooksUnknownBorrower() {
+        when(bookRepository.findLoans(9L)).thenReturn(List.of());
+        when(borrowerRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> borrowerService.getBorrowedBooks(9L));
     }
 
+    @Test
+    void testGetBorrowedBooksGroupsLoansByBorrower() {
+        BookDTO first = new BookDTO(1L, "1234567890", "Test Book", "Test Author", 2L);
+        BookDTO second = new BookDTO(3L, "1234567890", "Test Book", "Test Author", 1L);
+        when(bookRepository.findLoans(List.of(1L, 2L, 5L))).thenReturn(List.of(first, second));
+
+        Map<Long, List<BookDTO>> loans = borrowerService.getBorrowedBooks(List.of(1L, 2L, 5L, 1L));
+
+        assertEquals(List.of(1L, 2L, 5L), List.copyOf(loans.keySet()));
+        assertEquals(List.of(second), loans.get(1L));
+        assertEquals(List.of(first), loans.get(2L));
+        assertEquals(List.of(), loans.get(5L));
+    }
+
+    @Test
+    void testGetLoanHistoryPagesByEventId() {
+        LoanEventDTO borrowed = new LoanEventDTO(10L, 7L, 1L, LoanEventType.BORROW, Instant.parse("2024-01-01T10:00:00Z"));
+        LoanEventDTO returned = new LoanEventDTO(12L, 7L, 1L, LoanEventType.RETURN, Instant.parse("2024-01-08T10:00:00Z"));
+        when(loanEventRepository.findHistory(1L, 0L, PageRequest.of(0, 2))).thenReturn(List.of(borrowed, returned));
+
+        CursorPageDTO<LoanEventDTO> page = borrowerService.getLoanHistory(1L, null, 1);
+
+        assertEquals(List.of(borrowed), page.getItems());
+        assertEquals(10L, page.getNextCursor());
+        verify(borrowerRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void testGetLoanHistoryUnknownBorrower() {
+        when(loanEventRepository.findHistory(eq(9L), eq(0L), any())).thenReturn(List.of());
+        when(borrowerRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> borrowerService.getLoanHistory(9L, null, null));
+    }
 }
@@ -0,0 +1,69 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.service.impl.CatalogSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class CatalogSearchIndexTest {
+
+    private CatalogSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new CatalogSearchIndex(mock(JdbcTemplate.class));
+        searchIndex.addCopy("111", "The Shining", "Stephen King");
+        searchIndex.addCopy("111", "The Shining", "Stephen King");
+        searchIndex.addCopy("222", "The Once and Future King", "T. H. White");
+        searchIndex.addCopy("333", "Kingdom of Ash", "Sarah J. Maas");
+        searchIndex.addCopy("444", "Les Misérables", "Victor Hugo");
+    }
+
+    private List<String> isbns(String query) {
+        return searchIndex.search(query, 10).stream().map(CatalogSearchIndex.Entry::getIsbn).toList();
+    }
+
+    @Test
+    void testCopiesCollapseIntoOneEntryPerIsbn() {
+        List<CatalogSearchIndex.Entry> results = searchIndex.search("shining", 10);
+
+        assertEquals(1, results.size());
+        assertEquals("111", results.get(0).getIsbn());
+        assertEquals(2, results.get(0).getCopies());
+    }
+
+    @Test
+    void testEveryWordMustMatchTitleOrAuthor() {
+        assertEquals(List.of("111"), isbns("stephen shining"));
+        assertEquals(List.of(), isbns("stephen ash"));
+        assertEquals(List.of(), isbns("nothing"));
+        assertEquals(List.of(), isbns("  ,. "));
+    }
+
+    @Test
+    void testPrefixesMatchAndRankBelowWholeWords() {
+        // Title word, then author word, then title prefix
+        assertEquals(List.of("222", "111", "333"), isbns("king"));
+        assertEquals(List.of("333"), isbns("kingd"));
+        assertEquals(List.of("111"), isbns("the shin"));
+    }
+
+    @Test
+    void testMatchingIgnoresCaseAndAccents() {
+        assertEquals(List.of("444"), isbns("MISERABLES"));
+        assertEquals(List.of("444"), isbns("misér"));
+    }
+
+    @Test
+    void testLimitKeepsBestResults() {
+        List<CatalogSearchIndex.Entry> results = searchIndex.search("king", 1);
+
+        assertEquals(1, results.size());
+        assertEquals("222", results.get(0).getIsbn());
+    }
+}
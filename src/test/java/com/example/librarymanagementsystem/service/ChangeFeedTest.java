@@ -0,0 +1,186 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.config.ChangeFeedProperties;
+import com.example.librarymanagementsystem.dto.LoanChangeDTO;
+import com.example.librarymanagementsystem.service.impl.ChangeFeed;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    private static final Pattern ID = Pattern.compile("id:(\\S+)");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ChangeFeedProperties properties = new ChangeFeedProperties();
+    private ChangeFeed changeFeed;
+
+    @BeforeEach
+    void setUp() {
+        properties.setReplayCapacity(4);
+        properties.setSubscriberQueueCapacity(2);
+        properties.setMaxSubscribers(3);
+        changeFeed = new ChangeFeed(new ObjectMapper(), properties, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.destroy();
+    }
+
+    @Test
+    void testSubscriberReceivesChangesInOrder() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        assertTrue(changeFeed.subscribe(emitter, null));
+
+        changeFeed.publish(ChangeFeed.BORROWED, new LoanChangeDTO(7L, 1L));
+        changeFeed.publish(ChangeFeed.RETURNED, new LoanChangeDTO(7L, 1L));
+
+        List<String> events = emitter.await(3);
+        // A position marker first, so a reconnect before any change can still resume
+        assertFalse(events.get(0).contains("event:"));
+        assertTrue(events.get(1).contains("event:borrowed\ndata:{\"bookId\":7,\"borrowerId\":1}"));
+        assertTrue(events.get(2).contains("event:returned"));
+    }
+
+    @Test
+    void testResumeReplaysMissedChanges() throws Exception {
+        RecordingEmitter first = new RecordingEmitter();
+        changeFeed.subscribe(first, null);
+        changeFeed.publish(ChangeFeed.BORROWED, new LoanChangeDTO(7L, 1L));
+        String lastEventId = idOf(first.await(2).get(1));
+        first.complete();
+
+        changeFeed.publish(ChangeFeed.RETURNED, new LoanChangeDTO(7L, 1L));
+        changeFeed.publish(ChangeFeed.BORROWED, new LoanChangeDTO(8L, 2L));
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        changeFeed.subscribe(resumed, lastEventId);
+        List<String> events = resumed.await(2);
+        assertTrue(events.get(0).contains("event:returned"));
+        assertTrue(events.get(1).contains("\"bookId\":8"));
+    }
+
+    @Test
+    void testUnresumableIdGetsReset() throws Exception {
+        for (long bookId = 1; bookId <= 6; bookId++) {
+            changeFeed.publish(ChangeFeed.BORROWED, new LoanChangeDTO(bookId, 1L));
+        }
+
+        RecordingEmitter fromOtherProcess = new RecordingEmitter();
+        changeFeed.subscribe(fromOtherProcess, "otherinstance-3");
+        assertTrue(fromOtherProcess.await(1).get(0).contains("event:reset"));
+
+        // Changes 1 and 2 have been pushed out of the four-entry replay ring
+        RecordingEmitter probe = new RecordingEmitter();
+        changeFeed.subscribe(probe, null);
+        String current = idOf(probe.await(1).get(0));
+        String tooOld = current.substring(0, current.lastIndexOf('-') + 1) + "1";
+        RecordingEmitter stale = new RecordingEmitter();
+        changeFeed.subscribe(stale, tooOld);
+        assertTrue(stale.await(1).get(0).contains("event:reset"));
+    }
+
+    @Test
+    void testSlowSubscriberIsDisconnected() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(unblock);
+        RecordingEmitter fast = new RecordingEmitter();
+        changeFeed.subscribe(slow, null);
+        changeFeed.subscribe(fast, null);
+
+        for (long bookId = 1; bookId <= 10; bookId++) {
+            changeFeed.publish(ChangeFeed.BORROWED, new LoanChangeDTO(bookId, 1L));
+            Thread.sleep(5);
+        }
+
+        assertEquals(11, fast.await(11).size());
+        assertEquals(1, changeFeed.subscriberCount());
+        assertEquals(1.0, registry.get("library.events.disconnects").tag("reason", "slow").counter().count());
+        unblock.countDown();
+    }
+
+    @Test
+    void testStalledSendDoesNotHoldUpOtherSubscribers() throws Exception {
+        properties.setSendThreads(1);
+        properties.setSendTimeout(Duration.ofMillis(100));
+        changeFeed.destroy();
+        changeFeed = new ChangeFeed(new ObjectMapper(), properties, registry);
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(unblock);
+        RecordingEmitter other = new RecordingEmitter();
+        changeFeed.subscribe(stalled, null);
+        changeFeed.subscribe(other, null);
+
+        // The only sender is stuck writing to the first subscriber until the watchdog replaces it
+        changeFeed.publish(ChangeFeed.BORROWED, new LoanChangeDTO(7L, 1L));
+
+        assertTrue(other.await(2).get(1).contains("event:borrowed"));
+        assertEquals(1, changeFeed.subscriberCount());
+        assertEquals(1.0, registry.get("library.events.disconnects").tag("reason", "stalled").counter().count());
+        unblock.countDown();
+    }
+
+    @Test
+    void testSubscriberLimit() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(changeFeed.subscribe(new RecordingEmitter(), null));
+        }
+        assertFalse(changeFeed.subscribe(new RecordingEmitter(), null));
+    }
+
+    private static String idOf(String event) {
+        Matcher matcher = ID.matcher(event);
+        assertTrue(matcher.find(), event);
+        return matcher.group(1);
+    }
+
+    /** Captures the text of each event sent, optionally blocking in send like a client that stopped reading. */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch blockSends;
+
+        RecordingEmitter() {
+            this(null);
+        }
+
+        RecordingEmitter(CountDownLatch blockSends) {
+            this.blockSends = blockSends;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (blockSends != null) {
+                try {
+                    blockSends.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(builder.build().stream().map(part -> part.getData().toString()).collect(Collectors.joining()));
+        }
+
+        List<String> await(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 2000;
+            while (events.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(events.size() >= count, "expected " + count + " events but got " + events);
+            return events;
+        }
+    }
+}
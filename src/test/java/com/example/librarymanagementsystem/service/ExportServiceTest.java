@@ -0,0 +1,87 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.entity.Book;
+import com.example.librarymanagementsystem.entity.Borrower;
+import com.example.librarymanagementsystem.mapper.BookMapper;
+import com.example.librarymanagementsystem.mapper.BorrowerMapper;
+import com.example.librarymanagementsystem.service.impl.ExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private TypedQuery<Book> bookQuery;
+    @Mock
+    private TypedQuery<Borrower> borrowerQuery;
+
+    private ExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ExportServiceImpl(new BookMapper(), new BorrowerMapper(), new ObjectMapper(), 2);
+        ReflectionTestUtils.setField(exportService, "entityManager", entityManager);
+    }
+
+    @Test
+    void testExportBooksWritesOneLinePerRowAndDetaches() throws Exception {
+        // Given
+        Book book1 = new Book(1L, "1234567890", "Book 1", "Author 1", null);
+        Book book2 = new Book(2L, "0987654321", "Book 2", "Author 2", null);
+        Book book3 = new Book(3L, "1111111111", "Book 3", "Author 3", new Borrower(7L, "borrower@example.com", "Borrower"));
+
+        when(entityManager.createQuery(anyString(), eq(Book.class))).thenReturn(bookQuery);
+        when(bookQuery.setHint(anyString(), any())).thenReturn(bookQuery);
+        when(bookQuery.getResultStream()).thenReturn(Stream.of(book1, book2, book3));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long count = exportService.exportBooks(out);
+
+        // Then
+        assertEquals(3, count);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("{\"id\":3,\"isbn\":\"1111111111\",\"title\":\"Book 3\",\"author\":\"Author 3\",\"borrowerId\":7}", lines[2]);
+        verify(bookQuery).setHint(HibernateHints.HINT_FETCH_SIZE, 2);
+        verify(entityManager).detach(book1);
+        verify(entityManager).detach(book2);
+        verify(entityManager).detach(book3);
+    }
+
+    @Test
+    void testExportBorrowersEmptyTable() throws Exception {
+        // Given
+        when(entityManager.createQuery(anyString(), eq(Borrower.class))).thenReturn(borrowerQuery);
+        when(borrowerQuery.setHint(anyString(), any())).thenReturn(borrowerQuery);
+        when(borrowerQuery.getResultStream()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long count = exportService.exportBorrowers(out);
+
+        // Then
+        assertEquals(0, count);
+        assertEquals(0, out.size());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.config.LoanHistoryProperties;
+import com.example.librarymanagementsystem.entity.ArchivedLoanEvent;
+import com.example.librarymanagementsystem.entity.LoanEvent;
+import com.example.librarymanagementsystem.entity.LoanEventType;
+import com.example.librarymanagementsystem.service.impl.LoanEventArchiver;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class LoanEventArchiverTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testArchiveMovesOnlyEventsBeforeCutoff() {
+        Instant cutoff = Instant.parse("2024-06-01T00:00:00Z");
+        for (int day = 1; day <= 5; day++) {
+            entityManager.persist(new LoanEvent(null, (long) day, 1L, LoanEventType.BORROW, Instant.parse("2024-05-2" + day + "T09:00:00Z")));
+        }
+        LoanEvent recent = entityManager.persist(new LoanEvent(null, 9L, 1L, LoanEventType.RETURN, cutoff.plusSeconds(60)));
+        entityManager.flush();
+
+        LoanHistoryProperties properties = new LoanHistoryProperties();
+        // Smaller than the backlog so the move takes several batches
+        properties.setArchiveBatchSize(2);
+        LoanEventArchiver archiver = new LoanEventArchiver(jdbcTemplate, transactionManager, properties);
+
+        assertEquals(5, archiver.archiveOlderThan(cutoff));
+        entityManager.clear();
+
+        List<LoanEvent> remaining = entityManager.getEntityManager()
+                .createQuery("SELECT e FROM LoanEvent e", LoanEvent.class).getResultList();
+        assertEquals(List.of(recent.getId()), remaining.stream().map(LoanEvent::getId).toList());
+        List<ArchivedLoanEvent> archived = entityManager.getEntityManager()
+                .createQuery("SELECT e FROM ArchivedLoanEvent e ORDER BY e.id", ArchivedLoanEvent.class).getResultList();
+        assertEquals(5, archived.size());
+        assertEquals(Instant.parse("2024-05-21T09:00:00Z"), archived.get(0).getOccurredAt());
+        assertEquals(0, archiver.archiveOlderThan(cutoff));
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.config.LoanHistoryProperties;
+import com.example.librarymanagementsystem.config.LoanHistoryProperties.Durability;
+import com.example.librarymanagementsystem.entity.LoanEventType;
+import com.example.librarymanagementsystem.service.impl.LoanEventLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoanEventLogTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LoanHistoryProperties properties = new LoanHistoryProperties();
+    private LoanEventLog loanEventLog;
+
+    @AfterEach
+    void tearDown() {
+        if (loanEventLog != null && loanEventLog.isRunning()) {
+            loanEventLog.stop();
+        }
+    }
+
+    private LoanEventLog start(Durability durability) {
+        properties.setDurability(durability);
+        loanEventLog = new LoanEventLog(jdbcTemplate, jdbcTemplate, mock(PlatformTransactionManager.class), properties, registry);
+        loanEventLog.start();
+        return loanEventLog;
+    }
+
+    private double events(String outcome) {
+        return registry.get("library.loan.events").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void testSyncInsertsOnTheCallingThread() {
+        start(Durability.SYNC).record(LoanEventType.BORROW, 7L, 1L);
+
+        verify(jdbcTemplate).update(startsWith("INSERT INTO loan_event"), any(PreparedStatementSetter.class));
+        assertEquals(1.0, events("direct"));
+    }
+
+    @Test
+    void testBatchesAreWrittenThroughTheWriterConnections() {
+        JdbcTemplate writerJdbcTemplate = mock(JdbcTemplate.class);
+        properties.setDurability(Durability.GROUP_COMMIT);
+        loanEventLog = new LoanEventLog(jdbcTemplate, writerJdbcTemplate, mock(PlatformTransactionManager.class),
+                properties, registry);
+        loanEventLog.start();
+
+        loanEventLog.record(LoanEventType.BORROW, 7L, 1L);
+
+        verify(writerJdbcTemplate)
+                .batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testAsyncReturnsBeforeTheWriterFlushes() {
+        start(Durability.ASYNC);
+
+        loanEventLog.record(LoanEventType.BORROW, 7L, 1L);
+        loanEventLog.record(LoanEventType.RETURN, 7L, 1L);
+
+        verify(jdbcTemplate, timeout(2000).atLeastOnce())
+                .batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        loanEventLog.stop();
+        assertEquals(2.0, events("batched"));
+        assertEquals(0, loanEventLog.queuedEvents());
+        assertTrue(registry.get("library.loan.events.flush").timer().count() >= 1);
+    }
+
+    @Test
+    void testGroupCommitSharesBatchesBetweenConcurrentCallers() throws Exception {
+        List<Integer> batchSizes = new ArrayList<>();
+        CountDownLatch firstFlush = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            synchronized (batchSizes) {
+                batchSizes.add(invocation.<Collection<?>>getArgument(1).size());
+            }
+            // Hold the first batch so the other callers queue up behind it
+            firstFlush.await(2, TimeUnit.SECONDS);
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        start(Durability.GROUP_COMMIT);
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<?>> calls = new ArrayList<>();
+        for (long bookId = 1; bookId <= 8; bookId++) {
+            long id = bookId;
+            calls.add(callers.submit(() -> loanEventLog.record(LoanEventType.BORROW, id, 1L)));
+        }
+        Thread.sleep(200);
+        // Nobody returns before their batch has been written
+        assertTrue(calls.stream().noneMatch(Future::isDone));
+        firstFlush.countDown();
+        for (Future<?> call : calls) {
+            call.get(5, TimeUnit.SECONDS);
+        }
+        callers.shutdown();
+
+        assertEquals(8, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.size() < 8, "expected shared batches but got " + batchSizes);
+    }
+
+    @Test
+    void testFullQueueFallsBackToDirectInsert() {
+        properties.setQueueCapacity(1);
+        properties.setEnqueueTimeout(Duration.ZERO);
+        properties.setDurability(Durability.ASYNC);
+        // Not started: nothing drains the queue, so every event is written by its caller
+        loanEventLog = new LoanEventLog(jdbcTemplate, jdbcTemplate, mock(PlatformTransactionManager.class), properties, registry);
+
+        loanEventLog.record(LoanEventType.BORROW, 7L, 1L);
+
+        assertEquals(1.0, events("direct"));
+        assertEquals(0, loanEventLog.queuedEvents());
+    }
+
+    @Test
+    void testFailedFlushIsCountedAndDoesNotFailTheCaller() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+        start(Durability.GROUP_COMMIT);
+
+        assertDoesNotThrow(() -> loanEventLog.record(LoanEventType.RETURN, 7L, 1L));
+        assertEquals(1.0, events("failed"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.config.CacheConfig;
+import com.example.librarymanagementsystem.entity.Book;
+import com.example.librarymanagementsystem.entity.Borrower;
+import com.example.librarymanagementsystem.mapper.BookMapper;
+import com.example.librarymanagementsystem.mapper.BorrowerMapper;
+import com.example.librarymanagementsystem.repository.BibliographicRecordRepository;
+import com.example.librarymanagementsystem.repository.BookRepository;
+import com.example.librarymanagementsystem.repository.BorrowerRepository;
+import com.example.librarymanagementsystem.repository.LoanEventRepository;
+import com.example.librarymanagementsystem.service.impl.AvailabilityCounters;
+import com.example.librarymanagementsystem.service.impl.AvailabilityIndex;
+import com.example.librarymanagementsystem.service.impl.BookServiceImpl;
+import com.example.librarymanagementsystem.service.impl.BorrowerServiceImpl;
+import com.example.librarymanagementsystem.service.impl.CatalogSearchIndex;
+import com.example.librarymanagementsystem.service.impl.ChangeFeed;
+import com.example.librarymanagementsystem.service.impl.LoanEventLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {CacheConfig.class, BookServiceImpl.class, BorrowerServiceImpl.class,
+        BookMapper.class, BorrowerMapper.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+class ServiceCachingTest {
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BorrowerService borrowerService;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private BookRepository bookRepository;
+    @MockBean
+    private BorrowerRepository borrowerRepository;
+    @MockBean
+    private BibliographicRecordRepository bibliographicRecordRepository;
+    @MockBean
+    private AvailabilityIndex availabilityIndex;
+    @MockBean
+    private AvailabilityCounters availabilityCounters;
+    @MockBean
+    private CatalogSearchIndex catalogSearchIndex;
+    @MockBean
+    private LoanEventRepository loanEventRepository;
+    @MockBean
+    private LoanEventLog loanEventLog;
+    @MockBean
+    private ChangeFeed changeFeed;
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        when(bookRepository.findById(1L))
+                .thenReturn(Optional.of(new Book(1L, "1234567890", "Test Book", "Test Author", null)));
+        when(borrowerRepository.findById(1L))
+                .thenReturn(Optional.of(new Borrower(1L, "test@example.com", "Test Borrower")));
+    }
+
+    @Test
+    void testRepeatedLookupsAreServedFromCache() {
+        bookService.getBookById(1L);
+        bookService.getBookById(1L);
+        borrowerService.getBorrowerById(1L);
+        borrowerService.getBorrowerById(1L);
+
+        verify(bookRepository, times(1)).findById(1L);
+        verify(borrowerRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testBorrowAndReturnEvictOnlyTheAffectedBook() {
+        when(bookRepository.findById(2L))
+                .thenReturn(Optional.of(new Book(2L, "1234567890", "Test Book", "Test Author", null)));
+        when(bookRepository.checkOut(1L, 1L)).thenReturn(1);
+        when(bookRepository.checkIn(1L, 1L)).thenReturn(1);
+        bookService.getBookById(1L);
+        bookService.getBookById(2L);
+
+        borrowerService.borrowBook(1L, 1L);
+        bookService.getBookById(1L);
+        borrowerService.returnBook(1L, 1L);
+        bookService.getBookById(1L);
+        bookService.getBookById(2L);
+
+        verify(bookRepository, times(3)).findById(1L);
+        verify(bookRepository, times(1)).findById(2L);
+    }
+
+    @Test
+    void testBorrowAvailableCopyEvictsTheLentCopy() {
+        when(availabilityIndex.claim("1234567890")).thenReturn(1L);
+        when(bookRepository.checkOut(1L, 1L)).thenReturn(1);
+        bookService.getBookById(1L);
+
+        assertEquals(1L, borrowerService.borrowAvailableCopy(1L, "1234567890"));
+        bookService.getBookById(1L);
+
+        verify(bookRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testRefusedBorrowKeepsCachedBook() {
+        when(bookRepository.checkOut(1L, 1L)).thenReturn(0);
+        when(borrowerRepository.existsById(1L)).thenReturn(true);
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        bookService.getBookById(1L);
+
+        assertThrows(RuntimeException.class, () -> borrowerService.borrowBook(1L, 1L));
+        bookService.getBookById(1L);
+
+        verify(bookRepository, times(1)).findById(1L);
+    }
+}